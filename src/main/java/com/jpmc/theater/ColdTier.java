@@ -0,0 +1,297 @@
+package com.jpmc.theater;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** A cold tier class for JPMorgan Chase's take home assignment. The cold tier keeps completed showings and
+ * their reservations on disk once they are moved out of a theater, so they no longer take up heap space
+ * but can still be audited. Every theater should have a cold tier directory of its own.
+ * 
+ * Each call to archive writes one compressed segment file. Within a segment, values are stored column
+ * by column (all sequences, then all start times, and so on), which keeps similar values together and
+ * compresses well. Audit queries decode one segment at a time, so only their results stay in memory.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ColdTier {
+    private static final int MAGIC = 0x4A504D43;
+    private static final int VERSION = 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final AtomicInteger nextSegment;
+
+    /** Constructor for the cold tier class.
+     * 
+     * @param directory   the directory holding the segments
+     * @param nextSegment the number of the next segment to write
+     */
+    private ColdTier(Path directory, int nextSegment) {
+        this.directory = directory;
+        this.nextSegment = new AtomicInteger(nextSegment);
+    }
+
+    /** Opens the cold tier stored in a directory, creating the directory if it does not exist.
+     * 
+     * @param  directory   the directory holding the segments
+     * @throws IOException if the directory cannot be created or listed
+     * @return             the cold tier of the directory
+     */
+    public static ColdTier open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        int nextSegment = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+        return new ColdTier(directory, nextSegment);
+    }
+
+    /** Writes completed showings and their active reservations to a new segment. The segment is
+     * written under a temporary name and moved in place, so queries never see half written segments;
+     * the temporary file is deleted and its number given back if writing fails.
+     * 
+     * @param  showings    the showings to archive
+     * @throws IOException if the segment cannot be written
+     */
+    public void archive(List<Showing> showings) throws IOException {
+        if (showings.isEmpty())
+            return;
+        int number = nextSegment.getAndIncrement();
+        Path segment = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        Path temporary = directory.resolve(segment.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                writeSegment(showings, out);
+            }
+            Files.move(temporary, segment, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException cleanup) {
+                ex.addSuppressed(cleanup);
+            }
+            nextSegment.compareAndSet(number + 1, number); // reuse the number unless a later segment took one
+            throw ex;
+        }
+    }
+
+    /** Gets the amount of segments written to the cold tier.
+     * 
+     * @return amount of segments
+     * @throws IOException if the directory cannot be listed
+     */
+    public int getSegmentCount() throws IOException {
+        return segments(directory).size();
+    }
+
+    /** Reads back every archived showing, with its ticket price and free seats when it was archived.
+     * 
+     * @return             the archived showings, in the order they were archived
+     * @throws IOException if a segment cannot be read
+     */
+    public List<Showing> showings() throws IOException {
+        List<Showing> showings = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            showings.addAll(readSegment(segment, reservation -> { }));
+        }
+        return showings;
+    }
+
+    /** Reads back the archived reservations that match a filter.
+     * 
+     * @param  filter      the condition a reservation must meet
+     * @return             the matching reservations, in the order they were archived
+     * @throws IOException if a segment cannot be read
+     */
+    public List<Reservation> reservations(Predicate<Reservation> filter) throws IOException {
+        List<Reservation> reservations = new ArrayList<>();
+        forEachReservation(reservation -> {
+            if (filter.test(reservation))
+                reservations.add(reservation);
+        });
+        return reservations;
+    }
+
+    /** Hands every archived reservation to an action, one segment at a time.
+     * 
+     * @param  action      the action to run for each reservation
+     * @throws IOException if a segment cannot be read
+     */
+    public void forEachReservation(Consumer<Reservation> action) throws IOException {
+        for (Path segment : segments(directory)) {
+            readSegment(segment, action);
+        }
+    }
+
+    /** Writes the columns of a segment.
+     * 
+     * @param  showings    the showings to write, with their reservations
+     * @param  out         the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeSegment(List<Showing> showings, DataOutputStream out) throws IOException {
+        Map<Movie, Integer> movieIndexes = new IdentityHashMap<>();
+        List<Movie> movies = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        List<Integer> reservationShowings = new ArrayList<>();
+        for (int i = 0; i < showings.size(); i++) {
+            Showing showing = showings.get(i);
+            if (!movieIndexes.containsKey(showing.getMovie())) {
+                movieIndexes.put(showing.getMovie(), movies.size());
+                movies.add(showing.getMovie());
+            }
+            for (Reservation reservation : showing.getReservations()) {
+                reservations.add(reservation);
+                reservationShowings.add(i);
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(movies.size());
+        for (Movie movie : movies) {
+            out.writeUTF(movie.getTitle());
+            out.writeLong(movie.getRunningTime().getSeconds());
+            out.writeDouble(movie.getTicketPrice());
+            out.writeInt(movie.getSpecialCode());
+        }
+
+        out.writeInt(showings.size());
+        for (Showing showing : showings) {
+            out.writeInt(movieIndexes.get(showing.getMovie()));
+        }
+        for (Showing showing : showings) {
+            out.writeInt(showing.getSequenceOfTheDay());
+        }
+        for (Showing showing : showings) {
+            out.writeLong(showing.getStartTime().toEpochSecond(ZoneOffset.UTC));
+        }
+        for (Showing showing : showings) {
+            out.writeInt(showing.getCapacity());
+        }
+        for (Showing showing : showings) {
+            out.writeInt(showing.getSeatsAvailable());
+        }
+        for (Showing showing : showings) {
+            out.writeDouble(showing.getMovieFee());
+        }
+
+        out.writeInt(reservations.size());
+        for (int showing : reservationShowings) {
+            out.writeInt(showing);
+        }
+        for (Reservation reservation : reservations) {
+            out.writeInt(reservation.getTicketAmount());
+        }
+        for (Reservation reservation : reservations) {
+            out.writeUTF(reservation.getCustomer().getName());
+        }
+        for (Reservation reservation : reservations) {
+            out.writeUTF(reservation.getCustomer().getId());
+        }
+    }
+
+    /** Reads the columns of a segment back into showings and reservations.
+     * 
+     * @param  segment          the segment file
+     * @param  reservations     the action to run for each reservation of the segment
+     * @throws IOException      if the segment cannot be read
+     * @throws RuntimeException if the file is not a segment
+     * @return                  the showings of the segment
+     */
+    private static List<Showing> readSegment(Path segment, Consumer<Reservation> reservations) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(segment))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new RuntimeException("not a cold tier segment of version " + VERSION + ": " + segment.getFileName());
+            Movie[] movies = new Movie[in.readInt()];
+            for (int i = 0; i < movies.length; i++) {
+                String title = in.readUTF();
+                Duration runningTime = Duration.ofSeconds(in.readLong());
+                double ticketPrice = in.readDouble();
+                movies[i] = new Movie(title, runningTime, ticketPrice, in.readInt());
+            }
+
+            int showingCount = in.readInt();
+            int[] movieIndexes = readInts(in, showingCount);
+            int[] sequences = readInts(in, showingCount);
+            long[] startTimes = new long[showingCount];
+            for (int i = 0; i < showingCount; i++) {
+                startTimes[i] = in.readLong();
+            }
+            int[] capacities = readInts(in, showingCount);
+            int[] seatsAvailable = readInts(in, showingCount);
+            List<Showing> showings = new ArrayList<>(showingCount);
+            for (int i = 0; i < showingCount; i++) {
+                Showing showing = new Showing(movies[movieIndexes[i]], sequences[i],
+                        LocalDateTime.ofEpochSecond(startTimes[i], 0, ZoneOffset.UTC), capacities[i]);
+                showing.setTicketPrice(in.readDouble());
+                showing.tryClaimSeats(capacities[i] - seatsAvailable[i]);
+                showings.add(showing);
+            }
+
+            int reservationCount = in.readInt();
+            int[] reservationShowings = readInts(in, reservationCount);
+            int[] ticketCounts = readInts(in, reservationCount);
+            String[] names = new String[reservationCount];
+            for (int i = 0; i < reservationCount; i++) {
+                names[i] = in.readUTF();
+            }
+            List<Reservation> decoded = new ArrayList<>(reservationCount);
+            for (int i = 0; i < reservationCount; i++) {
+                Showing showing = showings.get(reservationShowings[i]);
+                Reservation reservation = new Reservation(new Customer(names[i], in.readUTF()), showing, ticketCounts[i]);
+                showing.addReservation(reservation);
+                decoded.add(reservation);
+            }
+            showings.forEach(Showing::close); // archived showings and reservations are read only
+            decoded.forEach(reservations);
+            return showings;
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /** Lists the segments of a directory, in the order they were written.
+     * 
+     * @param  directory   the directory holding the segments
+     * @return             the segment files
+     * @throws IOException if the directory cannot be listed
+     */
+    private static List<Path> segments(Path directory) throws IOException {
+        TreeSet<Path> segments = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        return new ArrayList<>(segments);
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
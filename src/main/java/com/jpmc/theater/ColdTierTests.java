@@ -0,0 +1,134 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColdTierTests {
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("cold-tier");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private Showing showingWithReservations() {
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1),
+                5,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(17, 50)),
+                50
+        );
+        showing.setTicketPrice(12.5);
+        for (Reservation reservation : List.of(
+                new Reservation(new Customer("John Doe", "id-1"), showing, 2),
+                new Reservation(new Customer("Jane Doe", "id-2"), showing, 3))) {
+            showing.tryClaimSeats(reservation.getTicketAmount());
+            showing.addReservation(reservation);
+        }
+        return showing;
+    }
+
+    /** Tests that movies keep their special code, and archived showings are read back closed. */
+    @Test
+    void testSpecialCodeKeptAndShowingsClosed() throws IOException {
+        Movie movie = new Movie("The Batman", Duration.ofMinutes(95), 9, 7);
+        ColdTier coldTier = ColdTier.open(directory);
+        coldTier.archive(List.of(new Showing(movie, 3, LocalDateTime.of(LocalDate.now(), LocalTime.of(12, 50)))));
+        Showing showing = coldTier.showings().get(0);
+        assertEquals(movie, showing.getMovie());
+        assertTrue(showing.isClosed());
+    }
+
+    /** Tests that a segment that fails to be written leaves no file behind and does not use up its number. */
+    @Test
+    void testFailedArchiveCleanedUp() throws IOException {
+        Showing showing = showingWithReservations();
+        char[] name = new char[70_000]; // too long to be written as a string
+        Arrays.fill(name, 'x');
+        Reservation reservation = new Reservation(new Customer(new String(name), "id-3"), showing, 1);
+        showing.addReservation(reservation);
+        ColdTier coldTier = ColdTier.open(directory);
+        assertThrows(IOException.class, () -> coldTier.archive(List.of(showing)));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        showing.removeReservation(reservation);
+        coldTier.archive(List.of(showing));
+        assertTrue(Files.exists(directory.resolve("segment-00000000.gz")));
+    }
+
+    /** Tests that archived showings are read back as they were archived. */
+    @Test
+    void testArchiveShowings() throws IOException {
+        Showing archived = showingWithReservations();
+        ColdTier coldTier = ColdTier.open(directory);
+        coldTier.archive(List.of(archived));
+        List<Showing> showings = coldTier.showings();
+        assertEquals(1, showings.size());
+        Showing showing = showings.get(0);
+        assertEquals(archived.getMovie(), showing.getMovie());
+        assertEquals(archived.getStartTime(), showing.getStartTime());
+        assertEquals(archived.getSequenceOfTheDay(), showing.getSequenceOfTheDay());
+        assertEquals(12.5, showing.getMovieFee());
+        assertEquals(45, showing.getSeatsAvailable());
+    }
+
+    /** Tests that audit queries find archived reservations with their fees. */
+    @Test
+    void testQueryReservations() throws IOException {
+        ColdTier coldTier = ColdTier.open(directory);
+        coldTier.archive(List.of(showingWithReservations()));
+        coldTier.archive(List.of(showingWithReservations()));
+        List<Reservation> reservations = coldTier.reservations(r -> r.getCustomer().getId().equals("id-2"));
+        assertEquals(2, reservations.size());
+        assertEquals(new Customer("Jane Doe", "id-2"), reservations.get(0).getCustomer());
+        assertEquals(30, reservations.get(0).totalFee());
+    }
+
+    /** Tests that a reopened cold tier keeps its segments and adds new ones after them. */
+    @Test
+    void testReopen() throws IOException {
+        ColdTier.open(directory).archive(List.of(showingWithReservations()));
+        ColdTier coldTier = ColdTier.open(directory);
+        coldTier.archive(List.of(showingWithReservations()));
+        coldTier.archive(List.of());
+        assertEquals(2, coldTier.getSegmentCount());
+        assertEquals(4, coldTier.reservations(r -> true).size());
+    }
+
+    /** Tests that reading a file that is not a segment raises an exception. */
+    @Test
+    void testInvalidSegment() throws IOException {
+        try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(directory.resolve("segment-00000000.gz")))) {
+            out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        ColdTier coldTier = ColdTier.open(directory);
+        RuntimeException exception = assertThrows(RuntimeException.class, coldTier::showings);
+        assertEquals("not a cold tier segment of version 1: segment-00000000.gz", exception.getMessage());
+    }
+}
@@ -24,6 +24,22 @@ public class Customer {
         this.name = name;
     }
 
+    /** Customer name getter.
+     * 
+     * @return the name of the customer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /** Customer id getter.
+     * 
+     * @return the id of the customer
+     */
+    public String getId() {
+        return id;
+    }
+
     /** Overrides equality method to test per fields of customer.
      * 
      * @param  o the object to compare against
@@ -0,0 +1,233 @@
+package com.jpmc.theater;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/** A group booking class for JPMorgan Chase's take home assignment. A group booking splits a party that
+ * does not fit into a single showing across several showings of the same movie, with the amount of
+ * tickets to reserve for each showing and the total fee after discounts. Showings with customers waiting
+ * for seats are left out, as their seats belong to the waitlist.
+ * 
+ * Group bookings are found with a branch and bound search: showings are tried from the cheapest ticket
+ * up, and a branch is dropped as soon as it cannot beat the best split found so far or cannot seat
+ * the rest of the party.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class GroupBooking {
+
+    /** What a group booking search optimizes for. */
+    public enum Objective {
+        /** The lowest total fee. */
+        CHEAPEST,
+        /** The earliest start of the last showing, then the lowest total fee. */
+        SOONEST
+    }
+
+    private final Map<Showing, Integer> ticketAmounts;
+    private final Map<Showing, Integer> sequences;
+    private final double totalFee;
+
+    /** Constructor for the group booking class.
+     * 
+     * @param ticketAmounts the amount of tickets for each showing, ordered by start time
+     * @param sequences     the sequence of each showing in the schedule of its theater
+     * @param totalFee      the total fee of all tickets
+     */
+    private GroupBooking(Map<Showing, Integer> ticketAmounts, Map<Showing, Integer> sequences, double totalFee) {
+        this.ticketAmounts = Collections.unmodifiableMap(ticketAmounts);
+        this.sequences = sequences;
+        this.totalFee = totalFee;
+    }
+
+    /** Gets a copy of the group booking that knows where its showings are in the schedule of a theater.
+     * 
+     * @param  sequences the sequence of each showing in the schedule, for at least the booked showings
+     * @return           the group booking with the sequences of its showings
+     */
+    GroupBooking withSequences(Map<Showing, Integer> sequences) {
+        Map<Showing, Integer> booked = new HashMap<>();
+        ticketAmounts.keySet().forEach(showing -> booked.put(showing, sequences.get(showing)));
+        return new GroupBooking(ticketAmounts, booked, totalFee);
+    }
+
+    /** Gets the showings of the group booking.
+     * 
+     * @return the showings the party is split across, ordered by start time
+     */
+    public List<Showing> getShowings() {
+        return new ArrayList<>(ticketAmounts.keySet());
+    }
+
+    /** Gets the amount of tickets to reserve for a showing of the group booking.
+     * 
+     * @param  showing a showing of the group booking
+     * @return         amount of tickets for the showing, 0 if it is not part of the booking
+     */
+    public int getTicketAmount(Showing showing) {
+        return ticketAmounts.getOrDefault(showing, 0);
+    }
+
+    /** Gets the sequence to reserve a showing of the group booking with. This is the position of the
+     * showing in the theater's schedule, which is not its sequence of the day for multi-day schedules.
+     * 
+     * @param  showing          a showing of the group booking
+     * @throws RuntimeException if the showing is not part of the booking, or the booking was not made by a theater
+     * @return                  the sequence of the showing in the schedule of the theater
+     */
+    public int getSequence(Showing showing) {
+        Integer sequence = sequences.get(showing);
+        if (sequence == null)
+            throw new RuntimeException("showing is not part of a group booking made by a theater");
+        return sequence;
+    }
+
+    /** Gets the total fee of the group booking (after discounts are applied).
+     * 
+     * @return total fee
+     */
+    public double getTotalFee() {
+        return totalFee;
+    }
+
+    /** Searches for the best way to seat a party across some showings. The free seats are read when
+     * the search runs, so they may be taken by the time the booking is reserved.
+     * 
+     * @param  showings     the candidate showings, ordered by start time
+     * @param  partySize    the amount of people in the party
+     * @param  maxShowings  the most showings the party may be split across
+     * @param  objective    what the search optimizes for
+     * @return              the best group booking, or null if the party cannot be seated
+     */
+    static GroupBooking search(List<Showing> showings, int partySize, int maxShowings, Objective objective) {
+        if (objective == Objective.SOONEST)
+            showings = earliestThatSeat(showings, partySize, maxShowings);
+        List<Showing> candidates = new ArrayList<>();
+        for (Showing showing : showings) {
+            if (freeSeats(showing) > 0)
+                candidates.add(showing);
+        }
+        candidates.sort(Comparator.comparingDouble(Showing::calculateFee));
+        return new Search(candidates, maxShowings).run(partySize);
+    }
+
+    /** Gets the seats of a showing a group booking may take. Seats freed while customers are waiting
+     * go to the waitlist, so such a showing cannot be reserved.
+     * 
+     * @param  showing a candidate showing
+     * @return         the free seats of the showing, or 0 if customers are waiting for seats
+     */
+    private static int freeSeats(Showing showing) {
+        return showing.getWaitlist().isEmpty() ? showing.getSeatsAvailable() : 0;
+    }
+
+    /** Keeps the showings up to the earliest start time by which the party can be seated.
+     * 
+     * @param  showings     the candidate showings, ordered by start time
+     * @param  partySize    the amount of people in the party
+     * @param  maxShowings  the most showings the party may be split across
+     * @return              the showings starting no later than needed to seat the party
+     */
+    private static List<Showing> earliestThatSeat(List<Showing> showings, int partySize, int maxShowings) {
+        PriorityQueue<Integer> largestSeats = new PriorityQueue<>();
+        int seats = 0;
+        for (int i = 0; i < showings.size(); i++) {
+            int available = freeSeats(showings.get(i));
+            largestSeats.add(available);
+            seats += available;
+            if (largestSeats.size() > maxShowings)
+                seats -= largestSeats.poll();
+            if (seats >= partySize) {
+                int end = i + 1;
+                while (end < showings.size() && showings.get(end).getStartTime().equals(showings.get(i).getStartTime())) {
+                    end++;
+                }
+                return showings.subList(0, end);
+            }
+        }
+        return List.of();
+    }
+
+    /** A depth first search over the candidates, cheapest ticket first. Taking as many tickets as
+     * possible from each chosen showing in this order fills any chosen set of showings optimally.
+     */
+    private static class Search {
+        private final List<Showing> candidates;
+        private final double[] fees;
+        private final int[] seats;
+        private final int[] seatsFrom;
+        private final int maxShowings;
+        private final int[] chosen;
+        private final int[] taken;
+        private int[] bestChosen;
+        private int[] bestTaken;
+        private double bestFee = Double.MAX_VALUE;
+
+        private Search(List<Showing> candidates, int maxShowings) {
+            int size = candidates.size();
+            this.candidates = candidates;
+            this.fees = new double[size];
+            this.seats = new int[size];
+            this.seatsFrom = new int[size + 1];
+            for (int i = size - 1; i >= 0; i--) {
+                fees[i] = candidates.get(i).calculateFee();
+                seats[i] = freeSeats(candidates.get(i));
+                seatsFrom[i] = seatsFrom[i + 1] + seats[i];
+            }
+            this.maxShowings = maxShowings;
+            this.chosen = new int[maxShowings];
+            this.taken = new int[maxShowings];
+        }
+
+        private GroupBooking run(int partySize) {
+            explore(0, 0, partySize, 0);
+            if (bestChosen == null)
+                return null;
+            Integer[] order = new Integer[bestChosen.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> candidates.get(bestChosen[i]).getStartTime()));
+            Map<Showing, Integer> ticketAmounts = new LinkedHashMap<>();
+            for (int i : order) {
+                ticketAmounts.put(candidates.get(bestChosen[i]), bestTaken[i]);
+            }
+            return new GroupBooking(ticketAmounts, Map.of(), bestFee);
+        }
+
+        /** Explores the splits using the candidates from an index on.
+         * 
+         * @param from      the first candidate that may still be chosen
+         * @param depth     amount of showings chosen so far
+         * @param remaining amount of people not seated yet
+         * @param fee       total fee of the tickets chosen so far
+         */
+        private void explore(int from, int depth, int remaining, double fee) {
+            if (remaining == 0) {
+                if (fee < bestFee) {
+                    bestFee = fee;
+                    bestChosen = Arrays.copyOf(chosen, depth);
+                    bestTaken = Arrays.copyOf(taken, depth);
+                }
+                return;
+            }
+            for (int i = from; i < candidates.size() && depth < maxShowings; i++) {
+                if (fee + remaining * fees[i] >= bestFee) // no cheaper tickets left from here on
+                    return;
+                if (seatsFrom[i] < remaining) // not enough seats left to seat the party
+                    return;
+                int tickets = Math.min(seats[i], remaining);
+                chosen[depth] = i;
+                taken[depth] = tickets;
+                explore(i + 1, depth + 1, remaining - tickets, fee + tickets * fees[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class GroupBookingTests {
+    private final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 0);
+
+    private Showing showing(int sequence, int hour, int capacity) {
+        return new Showing(spiderMan, sequence, LocalDateTime.of(LocalDate.now(), LocalTime.of(hour, 0)), capacity);
+    }
+
+    /** Tests that the cheapest split fills the cheapest showings first. */
+    @Test
+    void testCheapestSplit() {
+        Showing first = showing(1, 9, 4);   // $7 tickets
+        Showing second = showing(2, 10, 3); // $8 tickets
+        Showing fifth = showing(5, 19, 10); // $10 tickets
+        GroupBooking booking = GroupBooking.search(List.of(first, second, fifth), 6, 2, GroupBooking.Objective.CHEAPEST);
+        assertEquals(44, booking.getTotalFee());
+        assertEquals(List.of(first, second), booking.getShowings());
+        assertEquals(4, booking.getTicketAmount(first));
+        assertEquals(2, booking.getTicketAmount(second));
+        assertEquals(0, booking.getTicketAmount(fifth));
+    }
+
+    /** Tests that the amount of showings a party is split across is limited. */
+    @Test
+    void testMaxShowings() {
+        Showing first = showing(1, 9, 4);
+        Showing second = showing(2, 10, 3);
+        Showing fifth = showing(5, 19, 10);
+        GroupBooking booking = GroupBooking.search(List.of(first, second, fifth), 6, 1, GroupBooking.Objective.CHEAPEST);
+        assertEquals(60, booking.getTotalFee());
+        assertEquals(List.of(fifth), booking.getShowings());
+    }
+
+    /** Tests that the soonest split is preferred over a cheaper, later one. */
+    @Test
+    void testSoonestSplit() {
+        Showing early = showing(5, 9, 10);  // $10 tickets
+        Showing late = showing(1, 19, 10);  // $7 tickets
+        List<Showing> showings = List.of(early, late);
+        assertEquals(List.of(late), GroupBooking.search(showings, 4, 1, GroupBooking.Objective.CHEAPEST).getShowings());
+        assertEquals(List.of(early), GroupBooking.search(showings, 4, 1, GroupBooking.Objective.SOONEST).getShowings());
+    }
+
+    /** Tests that showings with customers waiting for seats are left out. */
+    @Test
+    void testWaitlistedShowingsLeftOut() {
+        Showing first = showing(1, 9, 10);  // $7 tickets
+        Showing fifth = showing(5, 19, 10); // $10 tickets
+        first.tryClaimSeats(8);
+        first.getWaitlist().join(new Customer("John Doe", "id-1"), 4, first, reservation -> { });
+        GroupBooking booking = GroupBooking.search(List.of(first, fifth), 2, 2, GroupBooking.Objective.CHEAPEST);
+        assertEquals(List.of(fifth), booking.getShowings());
+        assertEquals(List.of(fifth), GroupBooking.search(List.of(first, fifth), 2, 2, GroupBooking.Objective.SOONEST).getShowings());
+    }
+
+    /** Tests that no booking is found for a party larger than the free seats. */
+    @Test
+    void testPartyTooLarge() {
+        Showing first = showing(1, 9, 4);
+        first.tryClaimSeats(2);
+        assertNull(GroupBooking.search(List.of(first, showing(2, 10, 3)), 6, 3, GroupBooking.Objective.CHEAPEST));
+    }
+
+    /** Tests that the search finds the same total fee as trying every split. */
+    @Test
+    void testCheapestMatchesExhaustiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Showing> showings = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                showings.add(showing(1 + random.nextInt(9), 9 + random.nextInt(14), 1 + random.nextInt(8)));
+            }
+            showings.sort(Comparator.comparing(Showing::getStartTime));
+            int partySize = 1 + random.nextInt(20);
+            int maxShowings = 1 + random.nextInt(3);
+            GroupBooking booking = GroupBooking.search(showings, partySize, maxShowings, GroupBooking.Objective.CHEAPEST);
+            double expected = exhaustiveCheapest(showings, partySize, maxShowings);
+            if (expected == Double.MAX_VALUE)
+                assertNull(booking);
+            else
+                assertEquals(expected, booking.getTotalFee(), 1e-9);
+        }
+    }
+
+    /** Tries every set of at most max showings, filling each set cheapest ticket first. */
+    private double exhaustiveCheapest(List<Showing> showings, int partySize, int maxShowings) {
+        double best = Double.MAX_VALUE;
+        for (int mask = 1; mask < 1 << showings.size(); mask++) {
+            if (Integer.bitCount(mask) > maxShowings)
+                continue;
+            List<Showing> chosen = new ArrayList<>();
+            for (int i = 0; i < showings.size(); i++) {
+                if ((mask & 1 << i) != 0)
+                    chosen.add(showings.get(i));
+            }
+            chosen.sort(Comparator.comparingDouble(Showing::calculateFee));
+            int remaining = partySize;
+            double fee = 0;
+            for (Showing showing : chosen) {
+                int tickets = Math.min(remaining, showing.getSeatsAvailable());
+                fee += tickets * showing.calculateFee();
+                remaining -= tickets;
+            }
+            if (remaining == 0)
+                best = Math.min(best, fee);
+        }
+        return best;
+    }
+}
@@ -1,6 +1,7 @@
 package com.jpmc.theater;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /** A local date provider class for JPMorgan Chase's take home assignment. The local date provider 
  * class implements the singleton pattern and wraps the local date class.
@@ -28,4 +29,12 @@ public class LocalDateProvider {
     public LocalDate currentDate() {
         return LocalDate.now();
     }
+
+    /** Gets the current date and time.
+     * 
+     * @return current date and time
+     */
+    public LocalDateTime currentDateTime() {
+        return LocalDateTime.now();
+    }
 }
\ No newline at end of file
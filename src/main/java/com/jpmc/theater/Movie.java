@@ -59,6 +59,14 @@ public class Movie {
         return ticketPrice;
     }
 
+    /** Special code getter.
+     * 
+     * @return the code for this movie
+     */
+    public int getSpecialCode() {
+        return specialCode;
+    }
+
     /** Checks whether the movie is a special movie.
      * 
      * @return true if the movie is a special movie, false otherwise
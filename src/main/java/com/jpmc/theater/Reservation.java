@@ -1,5 +1,7 @@
 package com.jpmc.theater;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /** A reservation class for JPMorgan Chase's take home assignment. The reservation class will store
  * reservation related information such as price for reservation, customer who made it, and showing details.
  * @author David Burdjanadze
@@ -9,6 +11,7 @@ public class Reservation {
     private Customer customer;
     private Showing showing;
     private int ticketCount;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
 
     /** Constructor for Reservation class.
      * 
@@ -56,4 +59,21 @@ public class Reservation {
     public int getTicketAmount(){
         return this.ticketCount;
     }
+
+    /** Checks whether the reservation has been cancelled.
+     * 
+     * @return true if the reservation was cancelled, false otherwise
+    */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /** Marks the reservation as cancelled. Only the first call succeeds, so the seats of
+     * a reservation are never released twice.
+     * 
+     * @return true if this call cancelled the reservation, false if it was already cancelled
+    */
+    boolean cancel() {
+        return cancelled.compareAndSet(false, true);
+    }
 }
\ No newline at end of file
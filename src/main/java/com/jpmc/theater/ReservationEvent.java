@@ -0,0 +1,66 @@
+package com.jpmc.theater;
+
+/** A reservation event class for JPMorgan Chase's take home assignment. A reservation event describes
+ * a change to a reservation of the theater, and is handed to the subscribers of the theater's event bus.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ReservationEvent {
+
+    /** The kinds of changes a reservation can go through. */
+    public enum Type {
+        CREATED,
+        CANCELLED,
+        PRICE_CHANGED
+    }
+
+    private final Type type;
+    private final Reservation reservation;
+    private final double totalFee;
+
+    /** Constructor for the reservation event class. The total fee is captured when the event is
+     * created, as the fee of the reservation may change before the event is consumed.
+     * 
+     * @param type        the kind of change
+     * @param reservation the reservation that changed
+     */
+    ReservationEvent(Type type, Reservation reservation) {
+        this.type = type;
+        this.reservation = reservation;
+        this.totalFee = reservation.totalFee();
+    }
+
+    /** Event type getter.
+     * 
+     * @return the kind of change of this event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /** Event reservation getter.
+     * 
+     * @return the reservation that changed
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    /** Gets the total fee of the reservation at the time of the event.
+     * 
+     * @return total fee of the reservation when the event happened
+     */
+    public double getTotalFee() {
+        return totalFee;
+    }
+
+    /** Overrides the toString method to use the fields of the reservation event class.
+     * 
+     * @return a readable representation of the reservation event object
+     */
+    @Override
+    public String toString() {
+        return type + ": " + reservation.getCustomer() + ", sequence: " + reservation.getShowing().getSequenceOfTheDay()
+                + ", tickets: " + reservation.getTicketAmount() + ", fee: $" + totalFee;
+    }
+}
@@ -0,0 +1,185 @@
+package com.jpmc.theater;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A reservation event bus class for JPMorgan Chase's take home assignment. The event bus publishes
+ * reservation events to any amount of subscribers through a fixed size ring buffer. Publishing never
+ * blocks and never waits on subscribers: each subscriber reads the ring with its own cursor on the
+ * executor, receiving every event available within its requested demand in one batch. A subscriber
+ * that falls a whole ring behind is dropped with an error rather than slowing down reservations.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ReservationEventBus implements Flow.Publisher<ReservationEvent> {
+    static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final AtomicReferenceArray<Slot> ring;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<RingSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+
+    /** Constructor for the event bus class, delivering events on the common fork join pool. */
+    public ReservationEventBus() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /** Constructor for the event bus class.
+     * 
+     * @param  executor         the executor subscribers are served on
+     * @param  bufferSize       the amount of events kept for subscribers, a power of two
+     * @throws RuntimeException for a null executor or a buffer size that is not a power of two
+     */
+    public ReservationEventBus(Executor executor, int bufferSize) {
+        if(executor == null || bufferSize <= 0 || Integer.bitCount(bufferSize) != 1)
+            throw new RuntimeException("event bus must have an executor and a buffer size that is a power of two");
+        this.executor = executor;
+        this.ring = new AtomicReferenceArray<>(bufferSize);
+        this.mask = bufferSize - 1;
+    }
+
+    /** Subscribes to the events published after this call.
+     * 
+     * @param subscriber the subscriber to receive events
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ReservationEvent> subscriber) {
+        Objects.requireNonNull(subscriber);
+        RingSubscription subscription = new RingSubscription(subscriber, nextSequence.get());
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /** Gets the amount of active subscribers.
+     * 
+     * @return amount of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /** Publishes an event to all subscribers. The event is written to the ring and the subscribers
+     * are signalled; delivery itself happens on the executor. A publisher that was delayed for so
+     * long that a newer event already took its slot drops its event, which subscribers waiting for
+     * it detect as falling a whole ring behind.
+     * 
+     * @param event the event to publish
+     */
+    void publish(ReservationEvent event) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = (int) sequence & mask;
+        Slot slot = new Slot(sequence, event);
+        Slot current;
+        do {
+            current = ring.get(index);
+            if (current != null && current.sequence > sequence) // lapped by a newer event
+                break;
+        } while (!ring.compareAndSet(index, current, slot));
+        for (RingSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /** An event stored in the ring together with its position in the stream. */
+    private static class Slot {
+        private final long sequence;
+        private final ReservationEvent event;
+
+        private Slot(long sequence, ReservationEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    /** A subscription reading the ring at its own pace. Signals are folded into a single drain
+     * task, so a subscriber is never called concurrently and never from the publishing thread.
+     */
+    private class RingSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super ReservationEvent> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable requestError;
+        private long cursor;
+
+        private RingSubscription(Flow.Subscriber<? super ReservationEvent> subscriber, long cursor) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) { // reported by the drain, so the subscriber is never called concurrently
+                requestError = new IllegalArgumentException("amount of requested events must be positive");
+                signal();
+                return;
+            }
+            requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (pendingSignals.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingSignals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /** Delivers every published event up to the requested demand. */
+        private void drain() {
+            if (requestError != null) {
+                fail(requestError);
+                return;
+            }
+            long demand = requested.get();
+            long emitted = 0;
+            while (emitted < demand && !cancelled) {
+                Slot slot = ring.get((int) cursor & mask);
+                if (slot == null || slot.sequence < cursor) // not published yet
+                    break;
+                if (slot.sequence > cursor) {
+                    fail(new IllegalStateException("subscriber fell more than " + (mask + 1) + " events behind"));
+                    return;
+                }
+                try {
+                    subscriber.onNext(slot.event);
+                } catch (RuntimeException ex) {
+                    cancel();
+                    return;
+                }
+                cursor++;
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE)
+                requested.addAndGet(-emitted);
+        }
+
+        private void fail(Throwable error) {
+            if (cancelled)
+                return;
+            cancel();
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationEventBusTests {
+
+    /** A subscriber recording everything it receives, requesting events only when told to. */
+    private static class RecordingSubscriber implements Flow.Subscriber<ReservationEvent> {
+        private final List<ReservationEvent> events = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ReservationEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private ReservationEvent createdEvent() {
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 0),
+                5,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(17, 50))
+        );
+        return new ReservationEvent(ReservationEvent.Type.CREATED, new Reservation(new Customer("John Doe", "id-1"), showing, 2));
+    }
+
+    /** Tests that a subscriber only receives as many events as it requested. */
+    @Test
+    void testBackpressure() {
+        ReservationEventBus bus = new ReservationEventBus(Runnable::run, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber);
+        bus.publish(createdEvent());
+        bus.publish(createdEvent());
+        bus.publish(createdEvent());
+        assertEquals(0, subscriber.events.size());
+        subscriber.subscription.request(2);
+        assertEquals(2, subscriber.events.size());
+        subscriber.subscription.request(5);
+        assertEquals(3, subscriber.events.size());
+        bus.publish(createdEvent());
+        assertEquals(4, subscriber.events.size());
+    }
+
+    /** Tests that every subscriber receives every event. */
+    @Test
+    void testMultipleSubscribers() {
+        ReservationEventBus bus = new ReservationEventBus(Runnable::run, 8);
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        bus.subscribe(first);
+        bus.subscribe(second);
+        first.subscription.request(Long.MAX_VALUE);
+        second.subscription.request(Long.MAX_VALUE);
+        ReservationEvent event = createdEvent();
+        bus.publish(event);
+        assertEquals(List.of(event), first.events);
+        assertEquals(List.of(event), second.events);
+    }
+
+    /** Tests that a subscriber falling a whole ring behind is dropped with an error. */
+    @Test
+    void testSlowSubscriberDropped() {
+        ReservationEventBus bus = new ReservationEventBus(Runnable::run, 2);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber);
+        bus.publish(createdEvent());
+        bus.publish(createdEvent());
+        bus.publish(createdEvent());
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(0, bus.getSubscriberCount());
+    }
+
+    /** Tests that requesting a non-positive amount of events is an error. */
+    @Test
+    void testNonPositiveRequest() {
+        ReservationEventBus bus = new ReservationEventBus(Runnable::run, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    /** Tests that the error of a non-positive request is delivered by the drain, not by the requesting thread. */
+    @Test
+    void testNonPositiveRequestDeliveredByDrain() {
+        List<Runnable> tasks = new ArrayList<>();
+        ReservationEventBus bus = new ReservationEventBus(tasks::add, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber);
+        subscriber.subscription.request(-1);
+        assertNull(subscriber.error);
+        tasks.forEach(Runnable::run);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    /** Tests that a cancelled subscriber receives no more events. */
+    @Test
+    void testCancel() {
+        ReservationEventBus bus = new ReservationEventBus(Runnable::run, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.cancel();
+        bus.publish(createdEvent());
+        assertEquals(0, subscriber.events.size());
+    }
+
+    /** Testing event bus creation with a buffer size that is not a power of two. */
+    @Test
+    void testConstructInvalidBufferSize() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> new ReservationEventBus(Runnable::run, 3));
+        assertEquals("event bus must have an executor and a buffer size that is a power of two", exception.getMessage());
+    }
+}
@@ -0,0 +1,303 @@
+package com.jpmc.theater;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/** A reservation rate limiter class for JPMorgan Chase's take home assignment. The rate limiter caps the
+ * amount of tickets of a single reservation, and throttles the tickets a customer can buy per minute and
+ * the tickets a showing can sell per second with token buckets. Group bookings are checked once as a
+ * whole, against a cap of their own and an hourly allowance of each customer. Customers are told apart by their id
+ * alone, so changing the name on a request does not get a customer a new bucket.
+ * 
+ * Each bucket is a single atomic timestamp (the time at which the bucket would be full again), so a
+ * verdict is a map lookup and a compare and set. Buckets that are full again hold no information and
+ * are evicted once too many keys are tracked; a few buckets are sampled per new key, so eviction never
+ * scans the whole map, and a new key is never turned away because the map is full.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ReservationRateLimiter {
+    static final int DEFAULT_MAX_TICKETS_PER_RESERVATION = 20;
+    static final int DEFAULT_CUSTOMER_TICKETS_PER_MINUTE = 40;
+    static final int DEFAULT_SHOWING_TICKETS_PER_SECOND = 50; // a default showing cannot sell out within a second
+    static final int DEFAULT_MAX_TICKETS_PER_GROUP_BOOKING = 300;
+    static final int DEFAULT_CUSTOMER_GROUP_TICKETS_PER_HOUR = 300;
+    static final int DEFAULT_MAX_TRACKED_KEYS = 100_000;
+    static final int EVICTION_SAMPLE_SIZE = 8;
+
+    /** The outcome of checking a reservation against the limits. */
+    public enum Verdict {
+        ALLOWED,
+        TOO_MANY_TICKETS,
+        CUSTOMER_RATE_EXCEEDED,
+        SHOWING_RATE_EXCEEDED
+    }
+
+    private final int maxTicketsPerReservation;
+    private final int maxTicketsPerGroupBooking;
+    private final TokenBuckets<String> customerBuckets;
+    private final TokenBuckets<String> groupBuckets;
+    private final TokenBuckets<Showing> showingBuckets;
+    private final LongSupplier clock;
+
+    /** Constructor for the rate limiter class with the default limits. */
+    public ReservationRateLimiter() {
+        this(DEFAULT_MAX_TICKETS_PER_RESERVATION, DEFAULT_CUSTOMER_TICKETS_PER_MINUTE,
+                DEFAULT_SHOWING_TICKETS_PER_SECOND, DEFAULT_MAX_TRACKED_KEYS);
+    }
+
+    /** Constructor for the rate limiter class with the default group booking limits.
+     * 
+     * @param  maxTicketsPerReservation  the most tickets a single reservation can have
+     * @param  customerTicketsPerMinute  the tickets a customer can buy per minute, all at once at most
+     * @param  showingTicketsPerSecond   the tickets a showing can sell per second, all at once at most
+     * @param  maxTrackedKeys            the amount of customers and of showings tracked before idle ones are evicted
+     * @throws RuntimeException          for a non-positive limit
+     */
+    public ReservationRateLimiter(int maxTicketsPerReservation, int customerTicketsPerMinute, int showingTicketsPerSecond, int maxTrackedKeys) {
+        this(maxTicketsPerReservation, customerTicketsPerMinute, showingTicketsPerSecond,
+                DEFAULT_MAX_TICKETS_PER_GROUP_BOOKING, DEFAULT_CUSTOMER_GROUP_TICKETS_PER_HOUR, maxTrackedKeys);
+    }
+
+    /** Constructor for the rate limiter class.
+     * 
+     * @param  maxTicketsPerReservation     the most tickets a single reservation can have
+     * @param  customerTicketsPerMinute     the tickets a customer can buy per minute, all at once at most
+     * @param  showingTicketsPerSecond      the tickets a showing can sell per second, all at once at most
+     * @param  maxTicketsPerGroupBooking    the most tickets a single group booking can have
+     * @param  customerGroupTicketsPerHour  the tickets a customer can book in group bookings per hour, all at once at most
+     * @param  maxTrackedKeys               the amount of customers and of showings tracked before idle ones are evicted
+     * @throws RuntimeException             for a non-positive limit
+     */
+    public ReservationRateLimiter(int maxTicketsPerReservation, int customerTicketsPerMinute, int showingTicketsPerSecond,
+            int maxTicketsPerGroupBooking, int customerGroupTicketsPerHour, int maxTrackedKeys) {
+        this(maxTicketsPerReservation, customerTicketsPerMinute, showingTicketsPerSecond,
+                maxTicketsPerGroupBooking, customerGroupTicketsPerHour, maxTrackedKeys, System::nanoTime);
+    }
+
+    /** Constructor for the rate limiter class with the default group booking limits and a custom clock.
+     * 
+     * @param  maxTicketsPerReservation  the most tickets a single reservation can have
+     * @param  customerTicketsPerMinute  the tickets a customer can buy per minute, all at once at most
+     * @param  showingTicketsPerSecond   the tickets a showing can sell per second, all at once at most
+     * @param  maxTrackedKeys            the amount of customers and of showings tracked before idle ones are evicted
+     * @param  clock                     the source of the current time in nanoseconds
+     * @throws RuntimeException          for a non-positive limit
+     */
+    ReservationRateLimiter(int maxTicketsPerReservation, int customerTicketsPerMinute, int showingTicketsPerSecond, int maxTrackedKeys, LongSupplier clock) {
+        this(maxTicketsPerReservation, customerTicketsPerMinute, showingTicketsPerSecond,
+                DEFAULT_MAX_TICKETS_PER_GROUP_BOOKING, DEFAULT_CUSTOMER_GROUP_TICKETS_PER_HOUR, maxTrackedKeys, clock);
+    }
+
+    /** Constructor for the rate limiter class with a custom clock.
+     * 
+     * @param  maxTicketsPerReservation     the most tickets a single reservation can have
+     * @param  customerTicketsPerMinute     the tickets a customer can buy per minute, all at once at most
+     * @param  showingTicketsPerSecond      the tickets a showing can sell per second, all at once at most
+     * @param  maxTicketsPerGroupBooking    the most tickets a single group booking can have
+     * @param  customerGroupTicketsPerHour  the tickets a customer can book in group bookings per hour, all at once at most
+     * @param  maxTrackedKeys               the amount of customers and of showings tracked before idle ones are evicted
+     * @param  clock                        the source of the current time in nanoseconds
+     * @throws RuntimeException             for a non-positive limit
+     */
+    ReservationRateLimiter(int maxTicketsPerReservation, int customerTicketsPerMinute, int showingTicketsPerSecond,
+            int maxTicketsPerGroupBooking, int customerGroupTicketsPerHour, int maxTrackedKeys, LongSupplier clock) {
+        if(maxTicketsPerReservation <= 0 || customerTicketsPerMinute <= 0 || showingTicketsPerSecond <= 0
+                || maxTicketsPerGroupBooking <= 0 || customerGroupTicketsPerHour <= 0 || maxTrackedKeys <= 0)
+            throw new RuntimeException("rate limits must be positive numbers");
+        this.maxTicketsPerReservation = maxTicketsPerReservation;
+        this.maxTicketsPerGroupBooking = maxTicketsPerGroupBooking;
+        this.customerBuckets = new TokenBuckets<>(customerTicketsPerMinute, TimeUnit.MINUTES.toNanos(1), maxTrackedKeys);
+        this.groupBuckets = new TokenBuckets<>(customerGroupTicketsPerHour, TimeUnit.HOURS.toNanos(1), maxTrackedKeys);
+        this.showingBuckets = new TokenBuckets<>(showingTicketsPerSecond, TimeUnit.SECONDS.toNanos(1), maxTrackedKeys);
+        this.clock = clock;
+    }
+
+    /** Gets the most tickets a single group booking can have.
+     * 
+     * @return the cap on the tickets of a group booking
+     */
+    public int getMaxTicketsPerGroupBooking() {
+        return maxTicketsPerGroupBooking;
+    }
+
+    /** Checks a reservation against the limits, taking its tickets from the buckets of the customer
+     * and of the showing if it is allowed.
+     * 
+     * @param  customer       the customer making the reservation
+     * @param  showing        the showing being reserved
+     * @param  ticketCount    the amount of tickets of the reservation
+     * @return                the verdict for the reservation
+     */
+    public Verdict check(Customer customer, Showing showing, int ticketCount) {
+        if (ticketCount > maxTicketsPerReservation)
+            return Verdict.TOO_MANY_TICKETS;
+        long now = clock.getAsLong();
+        if (!customerBuckets.tryAcquire(customer.getId(), ticketCount, now))
+            return Verdict.CUSTOMER_RATE_EXCEEDED;
+        if (!showingBuckets.tryAcquire(showing, ticketCount, now)) {
+            customerBuckets.refund(customer.getId(), ticketCount);
+            return Verdict.SHOWING_RATE_EXCEEDED;
+        }
+        return Verdict.ALLOWED;
+    }
+
+    /** Gives back the tickets of an allowed reservation that could not be made after all,
+     * for instance because the showing had no seats left.
+     * 
+     * @param customer       the customer making the reservation
+     * @param showing        the showing being reserved
+     * @param ticketCount    the amount of tickets of the reservation
+     */
+    public void refund(Customer customer, Showing showing, int ticketCount) {
+        customerBuckets.refund(customer.getId(), ticketCount);
+        showingBuckets.refund(showing, ticketCount);
+    }
+
+    /** Checks a group booking against the limits as a whole, taking its tickets from the customer's
+     * group booking allowance if it is allowed. Group bookings are kept apart from single reservations,
+     * as a party too large for one showing is more than the per-reservation and per-minute limits allow.
+     * 
+     * @param  customer       the customer making the group booking
+     * @param  ticketCount    the amount of tickets of the whole group booking
+     * @return                the verdict for the group booking
+     */
+    public Verdict checkGroupBooking(Customer customer, int ticketCount) {
+        if (ticketCount > maxTicketsPerGroupBooking)
+            return Verdict.TOO_MANY_TICKETS;
+        if (!groupBuckets.tryAcquire(customer.getId(), ticketCount, clock.getAsLong()))
+            return Verdict.CUSTOMER_RATE_EXCEEDED;
+        return Verdict.ALLOWED;
+    }
+
+    /** Gives back the tickets of an allowed group booking that could not be reserved after all.
+     * 
+     * @param customer       the customer making the group booking
+     * @param ticketCount    the amount of tickets of the whole group booking
+     */
+    public void refundGroupBooking(Customer customer, int ticketCount) {
+        groupBuckets.refund(customer.getId(), ticketCount);
+    }
+
+    /** Stops tracking a showing that can no longer be reserved, so its bucket does not keep it in memory.
+     * 
+     * @param showing the showing to forget
+     */
+    public void forget(Showing showing) {
+        showingBuckets.remove(showing);
+    }
+
+    /** Token buckets keyed by customer or showing, bounded in the amount of keys tracked.
+     * A bucket stores the time at which it is full again; taking tokens pushes that time forward.
+     */
+    private static class TokenBuckets<K> {
+        private final ConcurrentHashMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private Iterator<Map.Entry<K, AtomicLong>> hand = buckets.entrySet().iterator(); // guarded by evicting
+        private final long nanosPerToken;
+        private final long burstNanos;
+        private final int maxKeys;
+
+        private TokenBuckets(int tokensPerPeriod, long periodNanos, int maxKeys) {
+            this.nanosPerToken = periodNanos / tokensPerPeriod;
+            this.burstNanos = nanosPerToken * tokensPerPeriod;
+            this.maxKeys = maxKeys;
+        }
+
+        /** Takes tokens from the bucket of a key, if it has enough of them.
+         * 
+         * @param  key    the key of the bucket
+         * @param  tokens the amount of tokens to take
+         * @param  now    the current time in nanoseconds
+         * @return        true if the tokens were taken, false if the bucket does not have enough of them
+         */
+        private boolean tryAcquire(K key, int tokens, long now) {
+            AtomicLong bucket = bucket(key, now);
+            long cost = tokens * nanosPerToken;
+            long fullAt;
+            long next;
+            do {
+                fullAt = bucket.get();
+                next = Math.max(fullAt, now) + cost;
+                if (next - now > burstNanos)
+                    return false;
+            } while (!bucket.compareAndSet(fullAt, next));
+            return true;
+        }
+
+        /** Gets the bucket of a key, creating a full one if the key is not tracked yet.
+         * 
+         * @param  key the key of the bucket
+         * @param  now the current time in nanoseconds
+         * @return     the bucket of the key
+         */
+        private AtomicLong bucket(K key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null)
+                return bucket;
+            if (buckets.size() >= maxKeys)
+                evict(now);
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        /** Gives back tokens taken for a reservation that was rejected afterwards.
+         * 
+         * @param key    the key of the bucket
+         * @param tokens the amount of tokens to give back
+         */
+        private void refund(K key, int tokens) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null)
+                bucket.addAndGet(-tokens * nanosPerToken);
+        }
+
+        /** Stops tracking a key.
+         * 
+         * @param key the key of the bucket
+         */
+        private void remove(K key) {
+            buckets.remove(key);
+        }
+
+        /** Makes room for a new key by looking at the next few buckets of the map, resuming where the
+         * previous eviction stopped. Buckets that are full again are evicted, as they behave exactly like
+         * buckets that were never created. If none of them is, the one that is full again the soonest is
+         * evicted instead, which forgets the least tokens taken. Only one thread evicts at a time; others
+         * do not wait for it and may briefly track a few keys more than the bound.
+         * 
+         * @param now the current time in nanoseconds
+         */
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true))
+                return;
+            try {
+                Map.Entry<K, AtomicLong> soonest = null;
+                boolean evicted = false;
+                for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+                    if (!hand.hasNext()) {
+                        hand = buckets.entrySet().iterator();
+                        if (!hand.hasNext())
+                            return;
+                    }
+                    Map.Entry<K, AtomicLong> entry = hand.next();
+                    long fullAt = entry.getValue().get();
+                    if (fullAt - now <= 0) {
+                        hand.remove();
+                        evicted = true;
+                    } else if (soonest == null || fullAt - soonest.getValue().get() < 0) {
+                        soonest = entry;
+                    }
+                }
+                if (!evicted && soonest != null)
+                    buckets.remove(soonest.getKey(), soonest.getValue());
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
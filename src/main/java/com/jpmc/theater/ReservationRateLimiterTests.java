@@ -0,0 +1,99 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReservationRateLimiterTests {
+    private final AtomicLong now = new AtomicLong();
+    private final Customer john = new Customer("John Doe", "id-1");
+    private final Showing showing = new Showing(
+            new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 0),
+            5,
+            LocalDateTime.of(LocalDate.now(), LocalTime.of(17, 50))
+    );
+
+    /** Tests that a reservation over the ticket cap is rejected. */
+    @Test
+    void testTooManyTickets() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(4, 60, 100, 10, now::get);
+        assertEquals(ReservationRateLimiter.Verdict.TOO_MANY_TICKETS, limiter.check(john, showing, 5));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 4));
+    }
+
+    /** Tests that a customer's bucket refills over time. */
+    @Test
+    void testCustomerBucketRefills() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 10, 100, 10, now::get);
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.CUSTOMER_RATE_EXCEEDED, limiter.check(john, showing, 1));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6)); // one ticket every 6 seconds
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 1));
+        assertEquals(ReservationRateLimiter.Verdict.CUSTOMER_RATE_EXCEEDED, limiter.check(john, showing, 1));
+    }
+
+    /** Tests that a showing selling too fast rejects every customer, without using up their buckets. */
+    @Test
+    void testShowingRateExceeded() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 20, 10, 10, now::get);
+        Customer jane = new Customer("Jane Doe", "id-2");
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.SHOWING_RATE_EXCEEDED, limiter.check(jane, showing, 10));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(jane, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(jane, showing, 0));
+    }
+
+    /** Tests that idle customers are evicted to make room for new ones, while active ones are kept. */
+    @Test
+    void testIdleCustomersEvicted() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 10, 1000, 2, now::get);
+        Customer jane = new Customer("Jane Doe", "id-2");
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(jane, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(new Customer("Jim Doe", "id-3"), showing, 1));
+        assertEquals(ReservationRateLimiter.Verdict.CUSTOMER_RATE_EXCEEDED, limiter.check(jane, showing, 1));
+    }
+
+    /** Tests that new customers are not locked out when every tracked customer is active. */
+    @Test
+    void testNewCustomersAdmittedWhenFull() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 10, 1000, 2, now::get);
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(new Customer("Jane Doe", "id-2"), showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(new Customer("Jim Doe", "id-3"), showing, 1));
+    }
+
+    /** Tests that refunded tickets can be bought again right away. */
+    @Test
+    void testRefund() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 10, 100, 10, now::get);
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        limiter.refund(john, showing, 10);
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+    }
+
+    /** Tests that a customer cannot get a new bucket by changing the name on a request. */
+    @Test
+    void testCustomersKeyedById() {
+        ReservationRateLimiter limiter = new ReservationRateLimiter(10, 10, 100, 10, now::get);
+        assertEquals(ReservationRateLimiter.Verdict.ALLOWED, limiter.check(john, showing, 10));
+        assertEquals(ReservationRateLimiter.Verdict.CUSTOMER_RATE_EXCEEDED, limiter.check(new Customer("Johnny Doe", "id-1"), showing, 1));
+    }
+
+    /** Testing rate limiter creation with a non-positive limit. */
+    @Test
+    void testConstructInvalidLimits() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> new ReservationRateLimiter(0, 10, 10, 10));
+        assertEquals("rate limits must be positive numbers", exception.getMessage());
+    }
+}
@@ -9,6 +9,8 @@ import java.time.LocalTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ReservationTests {
 
@@ -37,4 +39,20 @@ public class ReservationTests {
         RuntimeException exception = assertThrows(RuntimeException.class, () -> new Reservation(customer, showing, 0));
         assertEquals("invalid ticket count, cannot be a non-positive number", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    /** Testing a reservation can only be cancelled once. */
+    @Test
+    void testCancelOnce() {
+        Customer customer = new Customer("John Doe", "test-id");
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1),
+                1,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 50))
+        );
+        Reservation reservation = new Reservation(customer, showing, 2);
+        assertFalse(reservation.isCancelled());
+        assertTrue(reservation.cancel());
+        assertFalse(reservation.cancel());
+        assertTrue(reservation.isCancelled());
+    }
+}
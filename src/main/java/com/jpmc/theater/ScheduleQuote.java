@@ -0,0 +1,99 @@
+package com.jpmc.theater;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** A schedule quote class for JPMorgan Chase's take home assignment. A schedule quote prices many showings
+ * at once. The discount rules are evaluated when the quote is built, leaving three double columns: the
+ * ticket price, the share of it taken off and the flat amount taken off. Pricing is then a single pass
+ * over plain arrays with no calls and no conditions on the way, instead of a call on every showing.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ScheduleQuote {
+    private final List<Showing> showings;
+    private final double[] ticketPrices;
+    private final double[] percentDiscounts;
+    private final double[] flatDiscounts;
+
+    /** Constructor for the schedule quote class, copying the prices and discounts of the showings into columns.
+     * 
+     * @param showings the showings to quote, in the order their prices are returned
+     */
+    ScheduleQuote(List<Showing> showings) {
+        int size = showings.size();
+        this.showings = Collections.unmodifiableList(new ArrayList<>(showings));
+        this.ticketPrices = new double[size];
+        this.percentDiscounts = new double[size];
+        this.flatDiscounts = new double[size];
+        for (int i = 0; i < size; i++) {
+            Showing showing = showings.get(i);
+            ticketPrices[i] = showing.getMovieFee();
+            percentDiscounts[i] = Showing.percentDiscount(showing.getMovie().isSpecialMovie(), showing.getStartTime().getHour());
+            flatDiscounts[i] = Showing.flatDiscount(showing.getSequenceOfTheDay());
+        }
+    }
+
+    /** Builds a quote for every date of a schedule.
+     * 
+     * @param  schedule the showings of the schedule
+     * @return          the quotes of the schedule, by date
+     */
+    static Map<LocalDate, ScheduleQuote> byDate(List<Showing> schedule) {
+        Map<LocalDate, List<Showing>> showingsByDate = new TreeMap<>();
+        for (Showing showing : schedule) {
+            showingsByDate.computeIfAbsent(showing.getStartTime().toLocalDate(), date -> new ArrayList<>()).add(showing);
+        }
+        Map<LocalDate, ScheduleQuote> quotes = new TreeMap<>();
+        showingsByDate.forEach((date, showings) -> quotes.put(date, new ScheduleQuote(showings)));
+        return quotes;
+    }
+
+    /** Joins several quotes into one, keeping the order of the quotes.
+     * 
+     * @param  quotes the quotes to join
+     * @return        a quote of the showings of all quotes
+     */
+    static ScheduleQuote join(List<ScheduleQuote> quotes) {
+        if (quotes.size() == 1)
+            return quotes.get(0);
+        List<Showing> showings = new ArrayList<>();
+        quotes.forEach(quote -> showings.addAll(quote.showings));
+        return new ScheduleQuote(showings);
+    }
+
+    /** Gets the amount of showings of the quote.
+     * 
+     * @return amount of showings
+     */
+    public int size() {
+        return showings.size();
+    }
+
+    /** Gets the quoted showings, in the order their prices are returned.
+     * 
+     * @return the showings of the quote
+     */
+    public List<Showing> getShowings() {
+        return showings;
+    }
+
+    /** Calculates the price of a ticket for every showing of the quote, after discounts.
+     * 
+     * @param  prices an array to write the prices into, reused if it is large enough
+     * @return        the array holding the price of the i-th showing at index i
+     */
+    public double[] prices(double[] prices) {
+        int size = showings.size();
+        if (prices == null || prices.length < size)
+            prices = new double[size];
+        for (int i = 0; i < size; i++) {
+            prices[i] = ticketPrices[i] - Math.max(ticketPrices[i] * percentDiscounts[i], flatDiscounts[i]);
+        }
+        return prices;
+    }
+}
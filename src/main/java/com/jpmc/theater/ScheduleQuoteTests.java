@@ -0,0 +1,63 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ScheduleQuoteTests {
+    private final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+    private final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+
+    /** Builds showings starting every 110 minutes from 9 am, alternating a special and a regular movie. */
+    private List<Showing> showings(LocalDate date, int count) {
+        List<Showing> showings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = LocalDateTime.of(date, LocalTime.of(9, 0)).plusMinutes(110L * i);
+            showings.add(new Showing(i % 2 == 0 ? spiderMan : turningRed, i + 1, start));
+        }
+        return showings;
+    }
+
+    /** Tests that quoted prices match the fee of every showing. */
+    @Test
+    void testPricesMatchShowingFees() {
+        List<Showing> schedule = showings(LocalDate.now(), 8); // every discount rule applies somewhere
+        schedule.addAll(showings(LocalDate.now().plusDays(1), 8));
+        ScheduleQuote quote = new ScheduleQuote(schedule);
+        double[] prices = quote.prices(null);
+        for (int i = 0; i < schedule.size(); i++) {
+            assertEquals(schedule.get(i).calculateFee(), prices[i]);
+        }
+    }
+
+    /** Tests that a large enough price array is reused. */
+    @Test
+    void testPricesReuseArray() {
+        ScheduleQuote quote = new ScheduleQuote(showings(LocalDate.now(), 6));
+        double[] prices = new double[10];
+        assertSame(prices, quote.prices(prices));
+        assertEquals(6, quote.prices(new double[2]).length);
+    }
+
+    /** Tests that quotes are split by date and joined back in order. */
+    @Test
+    void testByDateAndJoin() {
+        List<Showing> schedule = showings(LocalDate.now(), 3);
+        schedule.addAll(showings(LocalDate.now().plusDays(1), 3));
+        Map<LocalDate, ScheduleQuote> byDate = ScheduleQuote.byDate(schedule);
+        assertEquals(2, byDate.size());
+        ScheduleQuote firstDay = byDate.get(LocalDate.now());
+        ScheduleQuote secondDay = byDate.get(LocalDate.now().plusDays(1));
+        assertEquals(schedule.subList(0, 3), firstDay.getShowings());
+        assertEquals(schedule, ScheduleQuote.join(List.of(firstDay, secondDay)).getShowings());
+    }
+}
@@ -0,0 +1,184 @@
+package com.jpmc.theater;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A schedule snapshot class for JPMorgan Chase's take home assignment. A schedule snapshot is a binary
+ * file holding the showings of a schedule and the catalog of their movies. Loading a snapshot only memory
+ * maps the file; showings and movies are decoded from the mapping the first time they are asked for,
+ * so a theater can serve reservations right away no matter how large its schedule is.
+ * 
+ * The file starts with a header (magic, version, movie count, showing count), followed by fixed width
+ * showing records (movie index, sequence, start time, capacity), the offsets of the movie records,
+ * and the movie records themselves (running time, ticket price, special code, title).
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class ScheduleSnapshot {
+    private static final int MAGIC = 0x4A504D43;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int SHOWING_BYTES = 20;
+
+    private final ByteBuffer buffer;
+    private final int showingCount;
+    private final int movieOffsetsStart;
+    private final AtomicReferenceArray<Movie> movies;
+
+    /** Constructor for the schedule snapshot class, checking the header of the mapped file.
+     * 
+     * @param  buffer           the contents of the snapshot file
+     * @throws RuntimeException if the contents are not a schedule snapshot
+     */
+    private ScheduleSnapshot(ByteBuffer buffer) {
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new RuntimeException("not a schedule snapshot of version " + VERSION);
+        this.buffer = buffer;
+        this.movies = new AtomicReferenceArray<>(buffer.getInt(8));
+        this.showingCount = buffer.getInt(12);
+        this.movieOffsetsStart = HEADER_BYTES + showingCount * SHOWING_BYTES;
+    }
+
+    /** Memory maps a snapshot file. Nothing besides the header is read until showings are asked for.
+     * 
+     * @param  file             the snapshot file
+     * @throws IOException      if the file cannot be mapped
+     * @throws RuntimeException if the file is not a schedule snapshot
+     * @return                  the snapshot backed by the file
+     */
+    public static ScheduleSnapshot load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ScheduleSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Writes a schedule and the catalog of its movies to a snapshot file.
+     * 
+     * @param  schedule    the showings to save, in sequence order
+     * @param  file        the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Showing> schedule, Path file) throws IOException {
+        Map<Movie, Integer> movieIndexes = new IdentityHashMap<>();
+        List<byte[]> movieRecords = new ArrayList<>();
+        for (Showing showing : schedule) {
+            Movie movie = showing.getMovie();
+            if (!movieIndexes.containsKey(movie)) {
+                movieIndexes.put(movie, movieRecords.size());
+                movieRecords.add(encodeMovie(movie));
+            }
+        }
+
+        int movieBytes = movieRecords.stream().mapToInt(record -> record.length).sum();
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + schedule.size() * SHOWING_BYTES + movieRecords.size() * 4 + movieBytes);
+        out.putInt(MAGIC).putInt(VERSION).putInt(movieRecords.size()).putInt(schedule.size());
+        for (Showing showing : schedule) {
+            out.putInt(movieIndexes.get(showing.getMovie()))
+                    .putInt(showing.getSequenceOfTheDay())
+                    .putLong(showing.getStartTime().toEpochSecond(ZoneOffset.UTC))
+                    .putInt(showing.getCapacity());
+        }
+        int offset = out.position() + movieRecords.size() * 4;
+        for (byte[] record : movieRecords) {
+            out.putInt(offset);
+            offset += record.length;
+        }
+        movieRecords.forEach(out::put);
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /** Gets the amount of showings in the snapshot.
+     * 
+     * @return amount of showings
+     */
+    public int size() {
+        return showingCount;
+    }
+
+    /** Reads the time a showing of the snapshot ends, its start time plus the running time of its
+     * movie, straight from the mapped file without decoding the showing or its movie.
+     * 
+     * @param  index the position of the showing in the schedule, starting at 0
+     * @throws IndexOutOfBoundsException for an index outside of the schedule
+     * @return       the end time of the showing at the index
+     */
+    LocalDateTime endTime(int index) {
+        if (index < 0 || index >= showingCount)
+            throw new IndexOutOfBoundsException("no showing at index " + index);
+        int position = HEADER_BYTES + index * SHOWING_BYTES;
+        int moviePosition = buffer.getInt(movieOffsetsStart + buffer.getInt(position) * 4);
+        return LocalDateTime.ofEpochSecond(buffer.getLong(position + 8) + buffer.getLong(moviePosition), 0, ZoneOffset.UTC);
+    }
+
+    /** Decodes a showing of the snapshot. Every call creates a new showing with all of its seats
+     * free, so callers are expected to keep the showings they decoded.
+     * 
+     * @param  index the position of the showing in the schedule, starting at 0
+     * @throws IndexOutOfBoundsException for an index outside of the schedule
+     * @return       the showing at the index
+     */
+    Showing showing(int index) {
+        if (index < 0 || index >= showingCount)
+            throw new IndexOutOfBoundsException("no showing at index " + index);
+        int position = HEADER_BYTES + index * SHOWING_BYTES;
+        return new Showing(
+                movie(buffer.getInt(position)),
+                buffer.getInt(position + 4),
+                LocalDateTime.ofEpochSecond(buffer.getLong(position + 8), 0, ZoneOffset.UTC),
+                buffer.getInt(position + 16)
+        );
+    }
+
+    /** Decodes a movie of the catalog, once. Showings of the same movie share the movie instance.
+     * 
+     * @param  index the position of the movie in the catalog
+     * @return       the movie at the index
+     */
+    private Movie movie(int index) {
+        Movie movie = movies.get(index);
+        if (movie != null)
+            return movie;
+        int position = buffer.getInt(movieOffsetsStart + index * 4);
+        Duration runningTime = Duration.ofSeconds(buffer.getLong(position));
+        double ticketPrice = buffer.getDouble(position + 8);
+        int specialCode = buffer.getInt(position + 16);
+        byte[] title = new byte[Short.toUnsignedInt(buffer.getShort(position + 20))];
+        buffer.duplicate().position(position + 22).get(title);
+        movies.compareAndSet(index, null, new Movie(new String(title, StandardCharsets.UTF_8), runningTime, ticketPrice, specialCode));
+        return movies.get(index);
+    }
+
+    /** Encodes a movie as a record of the catalog.
+     * 
+     * @param  movie the movie to encode
+     * @return       the bytes of the movie record
+     */
+    private static byte[] encodeMovie(Movie movie) {
+        byte[] title = movie.getTitle().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(22 + title.length)
+                .putLong(movie.getRunningTime().getSeconds())
+                .putDouble(movie.getTicketPrice())
+                .putInt(movie.getSpecialCode())
+                .putShort((short) title.length)
+                .put(title)
+                .array();
+    }
+}
@@ -0,0 +1,106 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ScheduleSnapshotTests {
+
+    /** Tests that showings read back from a snapshot match the ones written. */
+    @Test
+    void testWriteAndLoad() throws IOException {
+        Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+        Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+        LocalDate today = LocalDate.now();
+        List<Showing> schedule = List.of(
+                new Showing(turningRed, 1, LocalDateTime.of(today, LocalTime.of(9, 0))),
+                new Showing(spiderMan, 2, LocalDateTime.of(today, LocalTime.of(11, 0)), 40),
+                new Showing(turningRed, 3, LocalDateTime.of(today, LocalTime.of(12, 50))),
+                new Showing(spiderMan, 1, LocalDateTime.of(today.plusDays(1), LocalTime.of(9, 0)), 120),
+                new Showing(turningRed, 2, LocalDateTime.of(today.plusDays(1), LocalTime.of(11, 0)))
+        );
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            ScheduleSnapshot.write(schedule, file);
+            ScheduleSnapshot snapshot = ScheduleSnapshot.load(file);
+            assertEquals(schedule.size(), snapshot.size());
+            for (int i = 0; i < schedule.size(); i++) {
+                Showing expected = schedule.get(i);
+                Showing actual = snapshot.showing(i);
+                assertEquals(expected.getMovie(), actual.getMovie());
+                assertEquals(expected.getSequenceOfTheDay(), actual.getSequenceOfTheDay());
+                assertEquals(expected.getStartTime(), actual.getStartTime());
+                assertEquals(expected.getCapacity(), actual.getCapacity());
+                assertEquals(expected.getStartTime().plus(expected.getMovie().getRunningTime()), snapshot.endTime(i));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Tests that movies read back from a snapshot keep their special code and stay equal to the originals. */
+    @Test
+    void testMovieSpecialCodeKept() throws IOException {
+        Movie movie = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 7);
+        Showing showing = new Showing(movie, 1, LocalDateTime.of(LocalDate.now(), LocalTime.of(9, 0)));
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            ScheduleSnapshot.write(List.of(showing), file);
+            assertEquals(movie, ScheduleSnapshot.load(file).showing(0).getMovie());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Tests that showings of the same movie share the decoded movie. */
+    @Test
+    void testMovieDecodedOnce() throws IOException {
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            new Theater(LocalDateProvider.singleton()).saveSchedule(file);
+            ScheduleSnapshot snapshot = ScheduleSnapshot.load(file);
+            assertSame(snapshot.showing(0).getMovie(), snapshot.showing(3).getMovie());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Tests that a theater started from a snapshot prices reservations like the original one. */
+    @Test
+    void testTheaterFromSnapshot() throws IOException {
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            new Theater(LocalDateProvider.singleton()).saveSchedule(file);
+            Theater theater = new Theater(LocalDateProvider.singleton(), ScheduleSnapshot.load(file));
+            Reservation reservation = theater.reserve(new Customer("John Doe", "id-12345"), 4, 4);
+            assertEquals(33, reservation.totalFee());
+            assertSame(reservation.getShowing(), theater.reserve(new Customer("Jane Doe", "id-67890"), 4, 1).getShowing());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Tests that loading a file that is not a snapshot raises an exception. */
+    @Test
+    void testLoadInvalidFile() throws IOException {
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> ScheduleSnapshot.load(file));
+            assertEquals("not a schedule snapshot of version 1", exception.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.jpmc.theater;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** A showing class for JPMorgan Chase's take home assignment. The showing class handles the streaming of 
  * a movie at the theater. The showing stores information such the screening time, sequence of it within the day
@@ -9,9 +14,18 @@ import java.time.LocalDateTime;
  * @version 1.0
 */
 public class Showing {
+    static final int DEFAULT_CAPACITY = 100;
+
     private Movie movie;
     private int sequenceOfTheDay;
     private LocalDateTime showStartTime;
+    private int capacity;
+    private volatile double ticketPrice;
+    private final AtomicInteger seatsAvailable;
+    private final Waitlist waitlist = new Waitlist();
+    private final Set<Reservation> reservations = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger changesInProgress = new AtomicInteger();
+    private volatile boolean closed;
 
     /** Constructor for the Showing class. Instatitates a showing based on the movie
      * sequence of the showing in the date, and showing's start time.
@@ -22,11 +36,28 @@ public class Showing {
      * @throws RuntimeException in case of an invalid movie, sequence, or start time
      */
     public Showing(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime) {
+        this(movie, sequenceOfTheDay, showStartTime, DEFAULT_CAPACITY);
+    }
+
+    /** Constructor for the Showing class with an explicit seat capacity.
+     * 
+     * @param  movie            the movie
+     * @param  sequenceOfTheDay the number of showing in the day
+     * @param  showStartTime    the start time of the showing
+     * @param  capacity         the amount of seats available for the showing
+     * @throws RuntimeException in case of an invalid movie, sequence, start time, or capacity
+     */
+    public Showing(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime, int capacity) {
         if(movie == null || sequenceOfTheDay <= 0 || showStartTime == null)
             throw new RuntimeException("A showing must have a movie, a start time, and a valid, positive sequence");
+        if(capacity <= 0)
+            throw new RuntimeException("A showing must have a positive seat capacity");
         this.movie = movie;
         this.sequenceOfTheDay = sequenceOfTheDay;
         this.showStartTime = showStartTime;
+        this.capacity = capacity;
+        this.ticketPrice = movie.getTicketPrice();
+        this.seatsAvailable = new AtomicInteger(capacity);
     }
 
     /** Showing's movie getter.
@@ -54,12 +85,20 @@ public class Showing {
         return this.sequenceOfTheDay == sequence;
     }
 
-    /** Showing's movie fee getter.
+    /** Showing's movie fee getter. Defaults to the ticket price of the movie.
      * 
      * @return price of the ticket for the movie of this show
      */
     public double getMovieFee() {
-        return movie.getTicketPrice();
+        return ticketPrice;
+    }
+
+    /** Changes the ticket price of this showing, prior to any discount application.
+     * 
+     * @param ticketPrice the new price for a single ticket of this showing
+     */
+    void setTicketPrice(double ticketPrice) {
+        this.ticketPrice = ticketPrice;
     }
 
     /** Showing's sequence getter.
@@ -70,6 +109,122 @@ public class Showing {
         return sequenceOfTheDay;
     }
 
+    /** Showing's seat capacity getter.
+     * 
+     * @return the total amount of seats of this showing
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Gets the amount of seats that are not taken by a reservation.
+     * 
+     * @return the amount of free seats of this showing
+     */
+    public int getSeatsAvailable() {
+        return seatsAvailable.get();
+    }
+
+    /** Atomically claims seats for a reservation. Seats are only taken if all of them are free,
+     * so concurrent reservations can never oversell the showing.
+     * 
+     * @param  seats the amount of seats to claim
+     * @return       true if the seats were claimed, false if not enough seats are free or the showing is closed
+     */
+    boolean tryClaimSeats(int seats) {
+        if (closed)
+            return false;
+        int available;
+        do {
+            available = seatsAvailable.get();
+            if (available < seats)
+                return false;
+        } while (!seatsAvailable.compareAndSet(available, available - seats));
+        return true;
+    }
+
+    /** Starts a change to the seats, reservations, or waitlist of this showing. Every successful call
+     * must be followed by a call to endChange once the change is complete.
+     * 
+     * @return true if the change may go on, false if the showing is closed
+     */
+    boolean beginChange() {
+        changesInProgress.incrementAndGet();
+        if (closed) {
+            changesInProgress.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /** Ends a change started with beginChange. */
+    void endChange() {
+        changesInProgress.decrementAndGet();
+    }
+
+    /** Closes the showing to changes and waits for the changes in progress to complete, so its seats,
+     * reservations, and waitlist can be read as final afterwards. Changes begun later fail.
+     */
+    void close() {
+        closed = true;
+        while (changesInProgress.get() != 0) {
+            Thread.yield();
+        }
+    }
+
+    /** Opens a closed showing to changes again, for instance when archiving it failed. */
+    void reopen() {
+        closed = false;
+    }
+
+    /** Checks whether the showing is closed to changes.
+     * 
+     * @return true if the showing was closed, false otherwise
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /** Returns previously claimed seats back to the showing.
+     * 
+     * @param seats the amount of seats to release
+     */
+    void releaseSeats(int seats) {
+        seatsAvailable.addAndGet(seats);
+    }
+
+    /** Showing's waitlist getter.
+     * 
+     * @return the waitlist of customers waiting for seats of this showing
+     */
+    Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    /** Gets the active reservations of this showing.
+     * 
+     * @return a read only view of the reservations that were not cancelled
+     */
+    Collection<Reservation> getReservations() {
+        return Collections.unmodifiableSet(reservations);
+    }
+
+    /** Adds a reservation to the active reservations of this showing.
+     * 
+     * @param reservation the reservation made for this showing
+     */
+    void addReservation(Reservation reservation) {
+        reservations.add(reservation);
+    }
+
+    /** Removes a reservation from the active reservations of this showing.
+     * 
+     * @param reservation the cancelled reservation
+     */
+    void removeReservation(Reservation reservation) {
+        reservations.remove(reservation);
+    }
+
     /** Calculates the price for this showing based on the movie and any possible discount.
      * 
      * @return the price of this showing.
@@ -86,28 +241,43 @@ public class Showing {
      * @return the discount to be applied
      */
     private double getDiscount() {
-        double specialDiscount = 0; 
-        double midDayDiscount = 0;
-        if (this.movie.isSpecialMovie()) {
-            specialDiscount = this.getMovieFee() * 0.2;  // 20% discount for special movie
-        }
-        // checking if time is between 11 am to 4 pm
-        if(this.showStartTime.getHour() >= 11 && this.showStartTime.getHour() <= 16) {
-            midDayDiscount = this.getMovieFee() * 0.25; // 25% discount for movies starting between 11 am to 4 pm
-        }
+        return discount(this.getMovieFee(), this.movie.isSpecialMovie(), this.showStartTime.getHour(), this.sequenceOfTheDay);
+    }
 
-        double sequenceDiscount = 0;
-        if (this.sequenceOfTheDay == 1) {
-            sequenceDiscount = 3; // $3 discount for 1st show
-        } else if (this.sequenceOfTheDay == 2) {
-            sequenceDiscount = 2; // $2 discount for 2nd show
-        } else if (this.sequenceOfTheDay == 7) {
-            sequenceDiscount = 1; // $1 discount for 7th show
-        }
+    /** Calculates the discount for a ticket from the plain values of a showing.
+     * 
+     * @param  ticketPrice  the price of a ticket prior to any discount
+     * @param  specialMovie whether the movie is a special movie
+     * @param  startHour    the hour of the day the showing starts at
+     * @param  sequence     the sequence of the showing in the day
+     * @return              the largest discount that applies
+     */
+    static double discount(double ticketPrice, boolean specialMovie, int startHour, int sequence) {
+        // biggest discount wins; prices are never negative, so the largest percentage gives the largest share
+        return Math.max(ticketPrice * percentDiscount(specialMovie, startHour), flatDiscount(sequence));
+    }
 
-        // biggest discount wins
-        double percentageDiscount = Math.max(specialDiscount, midDayDiscount);
-        return percentageDiscount > sequenceDiscount ? percentageDiscount : sequenceDiscount;
+    /** Gets the largest discount of a showing given as a share of the ticket price.
+     * 
+     * @param  specialMovie whether the movie is a special movie
+     * @param  startHour    the hour of the day the showing starts at
+     * @return              the share of the ticket price taken off, 0 if none applies
+     */
+    static double percentDiscount(boolean specialMovie, int startHour) {
+        double specialDiscount = specialMovie ? 0.2 : 0; // 20% discount for special movie
+        // 25% discount for movies starting between 11 am to 4 pm
+        double midDayDiscount = startHour >= 11 && startHour <= 16 ? 0.25 : 0;
+        return Math.max(specialDiscount, midDayDiscount);
+    }
+
+    /** Gets the discount of a showing given as a fixed amount, which depends on its sequence in the day.
+     * 
+     * @param  sequence the sequence of the showing in the day
+     * @return          the amount taken off the ticket price, 0 if none applies
+     */
+    static double flatDiscount(int sequence) {
+        // $3 discount for 1st show, $2 for 2nd show, $1 for 7th show
+        return sequence == 1 ? 3 : sequence == 2 ? 2 : sequence == 7 ? 1 : 0;
     }
 
 }
\ No newline at end of file
@@ -98,4 +98,51 @@ public class ShowingTests {
         ));
         assertEquals("A showing must have a movie, a start time, and a valid, positive sequence", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    /** Testing seats can only be claimed while enough of them are free. */
+    @Test
+    void testClaimSeats() {
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1),
+                1,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 50)),
+                5
+        );
+        assertTrue(showing.tryClaimSeats(3));
+        assertFalse(showing.tryClaimSeats(3));
+        showing.releaseSeats(1);
+        assertTrue(showing.tryClaimSeats(3));
+        assertEquals(0, showing.getSeatsAvailable());
+    }
+
+    /** Testing a closed showing rejects changes until it is reopened. */
+    @Test
+    void testCloseShowing() {
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1),
+                1,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 50)),
+                5
+        );
+        showing.close();
+        assertTrue(showing.isClosed());
+        assertFalse(showing.beginChange());
+        assertFalse(showing.tryClaimSeats(1));
+        showing.reopen();
+        assertTrue(showing.beginChange());
+        showing.endChange();
+        assertTrue(showing.tryClaimSeats(1));
+    }
+
+    /** Testing showing instantiation with a non-positive capacity throws an exception. */
+    @Test
+    void testConstructShowingInvalidCapacity() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> new Showing(
+            new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1),
+            1,
+            LocalDateTime.of(LocalDate.now(), LocalTime.of(10, 50)),
+            0
+        ));
+        assertEquals("A showing must have a positive seat capacity", exception.getMessage());
+    }
+}
@@ -0,0 +1,185 @@
+package com.jpmc.theater;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** A startup benchmark class for JPMorgan Chase's take home assignment. The benchmark compares the time
+ * it takes to get a theater from nothing to its first reservation when the schedule is built in process,
+ * with movies and showings created and validated one by one, against starting from a schedule snapshot.
+ * 
+ * Both ways are timed twice: in this JVM after warming up, and in fresh JVMs started for every run, which
+ * includes class loading and interpretation as a real cold start would. The snapshot file was just
+ * written, so it is read from the page cache in both cases; cold disk reads are not measured.
+ * 
+ * Usage: StartupBenchmark [days] [screens] [showings per screen per day] [runs]
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+public class StartupBenchmark {
+    private static final int WARMUP_RUNS = 5;
+    private static final String COLD_RUN = "--cold-run";
+    private static final Customer CUSTOMER = new Customer("Benchmark", "benchmark-id");
+
+    /** Builds a schedule of several weeks of showings over several screens.
+     * 
+     * @param  days             amount of days in the schedule
+     * @param  screens          amount of screens showing movies in parallel
+     * @param  showingsPerDay   amount of showings of a screen per day
+     * @return                  the showings of the schedule
+     */
+    static List<Showing> buildSchedule(int days, int screens, int showingsPerDay) {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < screens * 2; i++) {
+            movies.add(new Movie("Movie #" + i, Duration.ofMinutes(85 + i % 40), 9 + i % 5, i % 7 == 0 ? 1 : 0));
+        }
+        List<Showing> schedule = new ArrayList<>(days * screens * showingsPerDay);
+        LocalDate firstDay = LocalDate.now();
+        for (int day = 0; day < days; day++) {
+            for (int screen = 0; screen < screens; screen++) {
+                for (int slot = 0; slot < showingsPerDay; slot++) {
+                    LocalDateTime start = LocalDateTime.of(firstDay.plusDays(day), LocalTime.of(9, 0)).plusMinutes(slot * 110L);
+                    Movie movie = movies.get((day + screen + slot) % movies.size());
+                    schedule.add(new Showing(movie, slot + 1, start, 120));
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /** Builds the schedule in process and makes the first reservation.
+     * 
+     * @param days           amount of days in the schedule
+     * @param screens        amount of screens showing movies in parallel
+     * @param showingsPerDay amount of showings of a screen per day
+     */
+    private static void startBuilt(int days, int screens, int showingsPerDay) {
+        List<Showing> schedule = buildSchedule(days, screens, showingsPerDay);
+        Theater theater = new Theater(LocalDateProvider.singleton(), schedule, new ReservationRateLimiter());
+        theater.reserve(CUSTOMER, schedule.size(), 2);
+    }
+
+    /** Loads the schedule from a snapshot and makes the first reservation.
+     * 
+     * @param  file        the snapshot file
+     * @throws IOException if the snapshot cannot be mapped
+     */
+    private static void startFromSnapshot(Path file) throws IOException {
+        ScheduleSnapshot snapshot = ScheduleSnapshot.load(file);
+        Theater theater = new Theater(LocalDateProvider.singleton(), snapshot);
+        theater.reserve(CUSTOMER, snapshot.size(), 2);
+    }
+
+    /** Times a task, returning the median duration of the runs after warming up.
+     * 
+     * @param  runs amount of measured runs
+     * @param  task the task to time
+     * @return      the median duration in milliseconds
+     */
+    private static double medianMillis(int runs, BenchmarkTask task) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.run();
+        }
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+
+    /** Times a startup in fresh JVMs, returning the median time the child JVMs report from entering
+     * main to their first reservation.
+     * 
+     * @param  runs      amount of JVMs started
+     * @param  arguments the arguments of the child JVM's main function
+     * @return           the median duration in milliseconds
+     */
+    private static double medianColdMillis(int runs, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                StartupBenchmark.class.getName(), COLD_RUN));
+        command.addAll(Arrays.asList(arguments));
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes()).trim();
+            try {
+                if (!process.waitFor(1, TimeUnit.MINUTES) || process.exitValue() != 0)
+                    throw new IOException("cold run failed: " + output);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for a cold run", ex);
+            }
+            millis[i] = Double.parseDouble(output);
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+
+    /** A benchmarked task that may read files. */
+    private interface BenchmarkTask {
+        void run() throws IOException;
+    }
+
+    /** Runs a single startup in a child JVM, printing the time it took in milliseconds.
+     * 
+     * @param args the startup to run: "built" with the schedule size, or "snapshot" with the file
+     */
+    private static void coldRun(String[] args) throws IOException {
+        long start = System.nanoTime();
+        if (args[1].equals("built"))
+            startBuilt(Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        else
+            startFromSnapshot(Paths.get(args[2]));
+        System.out.println((System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /** Main function will run the benchmark and print the median startup times.
+     * 
+     * @param args command line input arguments
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(COLD_RUN)) {
+            coldRun(args);
+            return;
+        }
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 28;
+        int screens = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int showingsPerDay = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 21;
+
+        Path file = Files.createTempFile("schedule", ".snapshot");
+        try {
+            List<Showing> schedule = buildSchedule(days, screens, showingsPerDay);
+            ScheduleSnapshot.write(schedule, file);
+
+            double built = medianMillis(runs, () -> startBuilt(days, screens, showingsPerDay));
+            double loaded = medianMillis(runs, () -> startFromSnapshot(file));
+            int coldRuns = Math.max(1, runs / 4);
+            double builtCold = medianColdMillis(coldRuns, "built", String.valueOf(days), String.valueOf(screens), String.valueOf(showingsPerDay));
+            double loadedCold = medianColdMillis(coldRuns, "snapshot", file.toString());
+
+            System.out.println("showings: " + schedule.size() + ", snapshot size: " + Files.size(file) + " bytes");
+            System.out.printf("%-34s %12s %12s%n", "time to 1st reservation (median)", "warm JVM", "fresh JVM");
+            System.out.println("==============================================================");
+            System.out.printf("%-34s %9.3f ms %9.3f ms%n", "built in process:", built, builtCold);
+            System.out.printf("%-34s %9.3f ms %9.3f ms%n", "loaded from snapshot:", loaded, loadedCold);
+            System.out.println("==============================================================");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
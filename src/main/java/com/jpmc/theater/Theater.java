@@ -1,23 +1,49 @@
 package com.jpmc.theater;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 import javax.management.RuntimeErrorException;
 
 import org.json.JSONObject;
 
 /** A theater class for JPMorgan Chase's take home assignment. The theater class creates a theater
- * that has a schedule composed of list of showings. The class facilitates movie ticket reservations. 
+ * that has a schedule composed of list of showings. The class facilitates movie ticket reservations,
+ * and publishes every change to a reservation as an event. Completed showings can be moved to a cold
+ * tier on disk, keeping only the showings that can still be reserved in memory.
  * @author David Burdjanadze
  * @version 1.0
 */
 public class Theater {
     LocalDateProvider provider;
-    private List<Showing> schedule;
+    private final AtomicReferenceArray<Showing> schedule;
+    private final Set<Integer> archivedSequences = ConcurrentHashMap.newKeySet();
+    private final ScheduleSnapshot snapshot;
+    private final ReservationRateLimiter rateLimiter;
+    private final ReservationEventBus events = new ReservationEventBus();
+    private final AtomicReference<Map<LocalDate, ScheduleQuote>> quotes = new AtomicReference<>();
+    private final AtomicInteger scheduleChanges = new AtomicInteger();
+    private volatile Map<Movie, List<Integer>> sequencesByMovie;
 
     /** Theater class constructor.
      * 
@@ -25,10 +51,76 @@ public class Theater {
      * @throws RuntimeException if object is constructed with a null provider
     */
     public Theater(LocalDateProvider provider) {
+        this(provider, new ReservationRateLimiter());
+    }
+
+    /** Theater class constructor with custom reservation limits.
+     * 
+     * @param  provider         a singleton class instance to provide date
+     * @param  rateLimiter      the limits reservations are checked against
+     * @throws RuntimeException if object is constructed with a null provider or rate limiter
+    */
+    public Theater(LocalDateProvider provider, ReservationRateLimiter rateLimiter) {
+        if(provider == null)
+            throw new RuntimeException("provider cannot be null");
+        if(rateLimiter == null)
+            throw new RuntimeException("rate limiter cannot be null");
+        this.provider = provider;
+        this.schedule = new AtomicReferenceArray<>(setupSchedule().toArray(new Showing[0]));
+        this.snapshot = null;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /** Theater class constructor for a schedule that was already built.
+     * 
+     * @param  provider         a singleton class instance to provide date
+     * @param  schedule         the showings of the schedule, in sequence order
+     * @param  rateLimiter      the limits reservations are checked against
+     * @throws RuntimeException if object is constructed with a null provider, schedule, or rate limiter
+    */
+    Theater(LocalDateProvider provider, List<Showing> schedule, ReservationRateLimiter rateLimiter) {
+        if(provider == null)
+            throw new RuntimeException("provider cannot be null");
+        if(schedule == null)
+            throw new RuntimeException("schedule cannot be null");
+        if(rateLimiter == null)
+            throw new RuntimeException("rate limiter cannot be null");
+        this.provider = provider;
+        this.schedule = new AtomicReferenceArray<>(schedule.toArray(new Showing[0]));
+        this.snapshot = null;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /** Theater class constructor for a schedule loaded from a snapshot. The showings are decoded
+     * from the snapshot the first time they are reserved or printed, so the theater is ready to
+     * take reservations as soon as it is constructed.
+     * 
+     * @param  provider         a singleton class instance to provide date
+     * @param  snapshot         the snapshot holding the schedule
+     * @throws RuntimeException if object is constructed with a null provider or snapshot
+    */
+    public Theater(LocalDateProvider provider, ScheduleSnapshot snapshot) {
+        this(provider, snapshot, new ReservationRateLimiter());
+    }
+
+    /** Theater class constructor for a schedule loaded from a snapshot, with custom reservation limits.
+     * 
+     * @param  provider         a singleton class instance to provide date
+     * @param  snapshot         the snapshot holding the schedule
+     * @param  rateLimiter      the limits reservations are checked against
+     * @throws RuntimeException if object is constructed with a null provider, snapshot, or rate limiter
+    */
+    public Theater(LocalDateProvider provider, ScheduleSnapshot snapshot, ReservationRateLimiter rateLimiter) {
         if(provider == null)
             throw new RuntimeException("provider cannot be null");
+        if(snapshot == null)
+            throw new RuntimeException("snapshot cannot be null");
+        if(rateLimiter == null)
+            throw new RuntimeException("rate limiter cannot be null");
         this.provider = provider;
-        schedule = setupSchedule();
+        this.schedule = new AtomicReferenceArray<>(snapshot.size());
+        this.snapshot = snapshot;
+        this.rateLimiter = rateLimiter;
     }
 
     /** Setting up some movies and showings to create a default schedule.
@@ -55,13 +147,16 @@ public class Theater {
 
     /**
      * Reserves a movie ticket(s) for a customer. The method will first check that the argument
-     * values provided are valid.
+     * values provided are valid. While customers are waiting for seats of the showing, free seats
+     * are kept for them and new reservations have to join the waitlist.
      * 
      * @param customer          the customer making the reservation
      * @param sequence          the number with the specific showing of the movie given for a date
      * @param howManyTickets    amount of tickets to buy
      * @throws RuntimeException for non-positive ticket amount
      * @throws RuntimeException for a null customer
+     * @throws RuntimeException if the reservation exceeds the reservation limits
+     * @throws RuntimeException if there are not enough seats, or customers are waiting for them
      * @return                  a reservation object for this reservation
     */
     public Reservation reserve(Customer customer, int sequence, int howManyTickets) {
@@ -69,21 +164,474 @@ public class Theater {
             throw new RuntimeException("amount of tickets to buy cannot be a non-positive number");
         if(customer == null)
             throw new RuntimeException("trying to make a reservation for a null customer");   
+        Showing showing = findShowing(sequence);
+        checkRateLimits(customer, showing, howManyTickets);
+        try {
+            return claim(customer, showing, sequence, howManyTickets);
+        } catch (RuntimeException ex) {
+            rateLimiter.refund(customer, showing, howManyTickets);
+            throw ex;
+        }
+    }
+
+    /** Claims the seats of a reservation and records it, once it passed the rate limits.
+     * 
+     * @param  customer               the customer making the reservation
+     * @param  showing                the showing being reserved
+     * @param  sequence               the number with the showing in the schedule
+     * @param  howManyTickets         amount of tickets to buy
+     * @throws IllegalStateException  if the showing was archived
+     * @throws RuntimeException       if there are not enough seats, or customers are waiting for them
+     * @return                        the reservation that was made
+    */
+    private Reservation claim(Customer customer, Showing showing, int sequence, int howManyTickets) {
+        if(!showing.beginChange()) // archived since it was found
+            throw new IllegalStateException("showing for given sequence " + sequence + " has completed and was archived");
+        try {
+            if(!showing.getWaitlist().isEmpty())
+                throw new RuntimeException("customers are waiting for seats, join the waitlist of showing sequence " + sequence);
+            if(!showing.tryClaimSeats(howManyTickets))
+                throw new RuntimeException("not enough seats available for showing sequence " + sequence);
+            Reservation reservation = new Reservation(customer, showing, howManyTickets);
+            reserved(reservation);
+            return reservation;
+        } finally {
+            showing.endChange();
+        }
+    }
+
+    /**
+     * Cancels a reservation and frees its seats. The freed seats are offered right away to the
+     * customers waiting in the waitlist of the showing, in the order they joined it.
+     * 
+     * @param reservation       the reservation to cancel
+     * @throws RuntimeException for a null reservation
+     * @throws RuntimeException if the reservation was already cancelled
+     * @throws IllegalStateException if the showing of the reservation was archived
+    */
+    public void cancel(Reservation reservation) {
+        if(reservation == null)
+            throw new RuntimeException("trying to cancel a null reservation");
+        Showing showing = reservation.getShowing();
+        if(!showing.beginChange())
+            throw new IllegalStateException("showing of the reservation has completed and was archived");
+        try {
+            if(!reservation.cancel())
+                throw new RuntimeException("reservation has already been cancelled");
+            showing.removeReservation(reservation);
+            showing.releaseSeats(reservation.getTicketAmount());
+            events.publish(new ReservationEvent(ReservationEvent.Type.CANCELLED, reservation));
+        } finally {
+            showing.endChange();
+        }
+        showing.getWaitlist().backfill(showing, this::reserved);
+    }
+
+    /**
+     * Puts a customer on the waitlist of a showing. The returned future completes with the reservation
+     * once enough seats are freed by cancellations; cancelling the future leaves the waitlist. If seats
+     * are free and nobody is waiting, the tickets are reserved right away instead. The tickets are taken
+     * from the rate limits on joining, like a reservation, and given back if the customer leaves the
+     * waitlist without getting them.
+     * 
+     * @param customer          the customer waiting for tickets
+     * @param sequence          the number with the specific showing of the movie given for a date
+     * @param howManyTickets    amount of tickets to buy
+     * @throws RuntimeException for non-positive ticket amount
+     * @throws RuntimeException for a null customer
+     * @throws RuntimeException for more tickets than the showing has seats
+     * @throws RuntimeException if the request exceeds the reservation limits
+     * @return                  a future of the reservation made once seats are available
+    */
+    public CompletableFuture<Reservation> joinWaitlist(Customer customer, int sequence, int howManyTickets) {
+        if(howManyTickets <= 0)
+            throw new RuntimeException("amount of tickets to buy cannot be a non-positive number");
+        if(customer == null)
+            throw new RuntimeException("trying to join a waitlist for a null customer");
+        Showing showing = findShowing(sequence);
+        if(howManyTickets > showing.getCapacity())
+            throw new RuntimeException("amount of tickets exceeds the capacity of showing sequence " + sequence);
+        checkRateLimits(customer, showing, howManyTickets);
+        if(!showing.beginChange()) { // archived since it was found
+            rateLimiter.refund(customer, showing, howManyTickets);
+            throw new IllegalStateException("showing for given sequence " + sequence + " has completed and was archived");
+        }
+        CompletableFuture<Reservation> reservation;
+        try {
+            if(showing.getWaitlist().isEmpty() && showing.tryClaimSeats(howManyTickets)) {
+                Reservation reserved = new Reservation(customer, showing, howManyTickets);
+                reserved(reserved);
+                return CompletableFuture.completedFuture(reserved);
+            }
+            reservation = showing.getWaitlist().join(customer, howManyTickets, showing, this::reserved);
+        } catch (RuntimeException ex) {
+            rateLimiter.refund(customer, showing, howManyTickets);
+            throw ex;
+        } finally {
+            showing.endChange();
+        }
+        reservation.whenComplete((reserved, error) -> {
+            if(error != null) // left the waitlist, or the showing was archived
+                rateLimiter.refund(customer, showing, howManyTickets);
+        });
+        showing.getWaitlist().backfill(showing, this::reserved); // seats may have been freed before joining
+        return reservation;
+    }
+
+    /**
+     * Changes the ticket price of a showing. Every active reservation of the showing is
+     * repriced, and a price change event is published for each of them.
+     * 
+     * @param sequence          the number with the specific showing of the movie given for a date
+     * @param ticketPrice       the new price for a single ticket, prior to any discount
+     * @throws RuntimeException for a negative ticket price
+    */
+    public void changeTicketPrice(int sequence, double ticketPrice) {
+        if(ticketPrice < 0)
+            throw new RuntimeException("ticket price cannot be a negative number");
+        Showing showing = findShowing(sequence);
+        showing.setTicketPrice(ticketPrice);
+        scheduleChanges.incrementAndGet();
+        quotes.set(null);
+        showing.getReservations().forEach(r ->
+                events.publish(new ReservationEvent(ReservationEvent.Type.PRICE_CHANGED, r)));
+    }
+
+    /**
+     * Quotes the price of a ticket for every showing on the given dates, after discounts. The quotes
+     * are built once and reused until a ticket price changes or showings are archived, so pricing
+     * a whole day is a single pass over the quote's columns.
+     * 
+     * @param dates             the dates to quote, in the order their showings are returned
+     * @throws RuntimeException if no dates are given
+     * @return                  the quote of the showings on the dates
+    */
+    public ScheduleQuote quote(LocalDate... dates) {
+        if(dates.length == 0)
+            throw new RuntimeException("at least one date must be quoted");
+        Map<LocalDate, ScheduleQuote> byDate = quotes.get();
+        if(byDate == null) {
+            int version = scheduleChanges.get();
+            byDate = ScheduleQuote.byDate(getSchedule());
+            if(scheduleChanges.get() == version) // do not keep quotes built while the schedule changed
+                quotes.compareAndSet(null, byDate);
+        }
+        List<ScheduleQuote> quoted = new ArrayList<>(dates.length);
+        for (LocalDate date : dates) {
+            quoted.add(byDate.getOrDefault(date, new ScheduleQuote(List.of())));
+        }
+        return ScheduleQuote.join(quoted);
+    }
+
+    /**
+     * Finds the best way to split a party across showings of a movie starting within a time window,
+     * for parties too large to fit into a single showing. Tickets are priced with the discounts of
+     * each showing, and showings with customers waiting for seats are left out. The free seats are read
+     * when the search runs, so the booking is not guaranteed until its tickets are reserved.
+     * 
+     * @param movie                  the movie the party wants to see
+     * @param partySize              the amount of people in the party
+     * @param from                   the earliest start time of a showing
+     * @param to                     the latest start time of a showing
+     * @param maxShowings            the most showings the party may be split across
+     * @param objective              whether to find the cheapest or the soonest split
+     * @throws RuntimeException      for a null movie, window, or objective, or non-positive amounts
+     * @throws RuntimeException      if the party is larger than a group booking may be
+     * @throws IllegalStateException if the party cannot be seated within the window
+     * @return                       the showings to reserve, their sequences, and the amount of tickets for each
+    */
+    public GroupBooking findGroupBooking(Movie movie, int partySize, LocalDateTime from, LocalDateTime to, int maxShowings, GroupBooking.Objective objective) {
+        if(movie == null || from == null || to == null || objective == null)
+            throw new RuntimeException("a group booking must have a movie, a time window, and an objective");
+        if(partySize <= 0 || maxShowings <= 0)
+            throw new RuntimeException("party size and amount of showings cannot be non-positive numbers");
+        if(partySize > rateLimiter.getMaxTicketsPerGroupBooking())
+            throw new RuntimeException("party size exceeds the limit of a group booking");
+        List<Showing> inWindow = new ArrayList<>();
+        Map<Showing, Integer> sequences = new HashMap<>();
+        for (int sequence : getSequencesByMovie().getOrDefault(movie, List.of())) {
+            Showing showing = liveShowing(sequence);
+            if(showing == null)
+                continue;
+            if(showing.getStartTime().isAfter(to))
+                break;
+            if(!showing.getStartTime().isBefore(from)) {
+                inWindow.add(showing);
+                sequences.put(showing, sequence);
+            }
+        }
+        GroupBooking booking = GroupBooking.search(inWindow, partySize, maxShowings, objective);
+        if(booking == null)
+            throw new IllegalStateException("not able to seat a party of " + partySize + " for " + movie.getTitle() + " within the given time window");
+        return booking.withSequences(sequences);
+    }
+
+    /**
+     * Reserves every showing of a group booking for a customer. The booking is checked against the
+     * rate limits once as a whole, against the group booking allowance of the customer rather than
+     * the limits of single reservations. It is reserved as a whole too: if any of its reservations
+     * fails, the ones already made are cancelled and the allowance is given back.
+     * 
+     * @param customer          the customer making the reservations
+     * @param booking           a group booking found by this theater
+     * @throws RuntimeException for a null customer or booking
+     * @throws RuntimeException if the booking exceeds the group booking limits
+     * @throws RuntimeException if any of the reservations cannot be made
+     * @return                  the reservations of the booking, ordered by start time
+    */
+    public List<Reservation> reserveGroupBooking(Customer customer, GroupBooking booking) {
+        if(customer == null || booking == null)
+            throw new RuntimeException("trying to reserve a null group booking or for a null customer");
+        int ticketCount = 0;
+        for (Showing showing : booking.getShowings()) {
+            ticketCount += booking.getTicketAmount(showing);
+        }
+        switch (rateLimiter.checkGroupBooking(customer, ticketCount)) {
+            case TOO_MANY_TICKETS:
+                throw new RuntimeException("amount of tickets exceeds the limit of a group booking");
+            case CUSTOMER_RATE_EXCEEDED:
+                throw new RuntimeException("customer is booking groups too fast, try again later");
+            default:
+                break;
+        }
+        List<Reservation> reservations = new ArrayList<>();
+        try {
+            for (Showing showing : booking.getShowings()) {
+                int sequence = booking.getSequence(showing);
+                if(liveShowing(sequence) != showing)
+                    throw new IllegalStateException("group booking does not match the schedule at showing sequence " + sequence);
+                reservations.add(claim(customer, showing, sequence, booking.getTicketAmount(showing)));
+            }
+        } catch (RuntimeException ex) {
+            for (Reservation reservation : reservations) {
+                try {
+                    cancel(reservation);
+                } catch (IllegalStateException archived) { // the showing has completed meanwhile
+                    ex.addSuppressed(archived);
+                }
+            }
+            rateLimiter.refundGroupBooking(customer, ticketCount);
+            throw ex;
+        }
+        return reservations;
+    }
+
+    /** Gets the sequences of the showings of each movie, ordered by start time. The index is built on first use.
+     * 
+     * @return the sequences of the schedule by movie
+    */
+    private Map<Movie, List<Integer>> getSequencesByMovie() {
+        Map<Movie, List<Integer>> index = sequencesByMovie;
+        if(index == null) {
+            Map<Movie, List<Showing>> showingsByMovie = new HashMap<>();
+            Map<Showing, Integer> sequences = new HashMap<>();
+            for (int sequence = 1; sequence <= schedule.length(); sequence++) {
+                Showing showing = liveShowing(sequence);
+                if(showing != null) {
+                    showingsByMovie.computeIfAbsent(showing.getMovie(), movie -> new ArrayList<>()).add(showing);
+                    sequences.put(showing, sequence);
+                }
+            }
+            index = new HashMap<>();
+            for (Map.Entry<Movie, List<Showing>> entry : showingsByMovie.entrySet()) {
+                entry.getValue().sort(Comparator.comparing(Showing::getStartTime));
+                List<Integer> ordered = new ArrayList<>();
+                entry.getValue().forEach(showing -> ordered.add(sequences.get(showing)));
+                index.put(entry.getKey(), ordered);
+            }
+            sequencesByMovie = index;
+        }
+        return index;
+    }
+
+    /** Gets the stream of reservation events of this theater. Subscribers receive every event
+     * published after they subscribed, as fast as their requested demand allows.
+     * 
+     * @return publisher of the reservation events
+    */
+    public Flow.Publisher<ReservationEvent> getReservationEvents() {
+        return events;
+    }
+
+    /** Checks a request for tickets against the reservation limits of the theater.
+     * 
+     * @param  customer         the customer asking for tickets
+     * @param  showing          the showing the tickets are for
+     * @param  howManyTickets   amount of tickets asked for
+     * @throws RuntimeException if the request exceeds the reservation limits
+    */
+    private void checkRateLimits(Customer customer, Showing showing, int howManyTickets) {
+        switch (rateLimiter.check(customer, showing, howManyTickets)) {
+            case TOO_MANY_TICKETS:
+                throw new RuntimeException("amount of tickets exceeds the limit of a single reservation");
+            case CUSTOMER_RATE_EXCEEDED:
+                throw new RuntimeException("customer is buying tickets too fast, try again later");
+            case SHOWING_RATE_EXCEEDED:
+                throw new RuntimeException("showing is selling tickets too fast, try again later");
+            default:
+                break;
+        }
+    }
+
+    /** Records a new reservation with its showing and publishes its creation.
+     * 
+     * @param reservation the reservation that was made
+    */
+    private void reserved(Reservation reservation) {
+        reservation.getShowing().addReservation(reservation);
+        events.publish(new ReservationEvent(ReservationEvent.Type.CREATED, reservation));
+    }
+
+    /** Finds the showing for a sequence of the schedule.
+     * 
+     * @param  sequence               the number with the specific showing of the movie given for a date
+     * @throws IllegalStateException  if there is no showing for the sequence, or it was archived
+     * @return                        the showing for the sequence
+    */
+    private Showing findShowing(int sequence) {
         Showing showing;
         try {
-            showing = schedule.get(sequence - 1);
+            showing = liveShowing(sequence);
         } catch (RuntimeException ex) {
             ex.printStackTrace();
             throw new IllegalStateException("not able to find any showing for given sequence " + sequence);
         }
-        return new Reservation(customer, showing, howManyTickets);
+        if(showing == null)
+            throw new IllegalStateException("showing for given sequence " + sequence + " has completed and was archived");
+        return showing;
+    }
+
+    /** Gets the showing for a sequence from the showings kept in memory, decoding it from the
+     * snapshot if it was not needed so far.
+     * 
+     * @param  sequence the number with the specific showing of the movie given for a date
+     * @return          the showing for the sequence, or null if it was archived
+    */
+    private Showing liveShowing(int sequence) {
+        Showing showing = schedule.get(sequence - 1);
+        if(showing == null && !archivedSequences.contains(sequence)) { // not decoded from the snapshot yet
+            if(snapshot == null) // put back by an archiving run that failed, before its sequence was released
+                return schedule.get(sequence - 1);
+            schedule.compareAndSet(sequence - 1, null, snapshot.showing(sequence - 1));
+            showing = schedule.get(sequence - 1);
+            if(archivedSequences.contains(sequence)) { // archived while decoding
+                schedule.set(sequence - 1, null);
+                return null;
+            }
+        }
+        return showing;
+    }
+
+    /** Gets all showings of the schedule that were not archived, decoding the ones that were not needed so far.
+     * 
+     * @return the list of showings of the schedule
+    */
+    private List<Showing> getSchedule() {
+        List<Showing> showings = new ArrayList<>(schedule.length());
+        for (int sequence = 1; sequence <= schedule.length(); sequence++) {
+            Showing showing = liveShowing(sequence);
+            if(showing != null)
+                showings.add(showing);
+        }
+        return showings;
+    }
+
+    /**
+     * Moves the showings that have ended, with their reservations, to a cold tier. Archived showings
+     * can no longer be reserved, and customers still waiting for them are removed from the waitlist.
+     * The showings are closed before they are written, so reservations, cancellations, and waitlist
+     * changes in progress complete first and later ones fail. Showings of a snapshot that were never
+     * decoded are archived without being kept in memory.
+     * 
+     * @param coldTier          the cold tier to move the showings to
+     * @throws RuntimeException for a null cold tier
+     * @throws IOException      if the showings cannot be written, in which case they are kept in memory and reopened
+     * @return                  amount of showings archived
+    */
+    public synchronized int archiveCompletedShowings(ColdTier coldTier) throws IOException {
+        if(coldTier == null)
+            throw new RuntimeException("cold tier cannot be null");
+        LocalDateTime now = provider.currentDateTime();
+        List<Integer> sequences = new ArrayList<>();
+        List<Showing> completed = new ArrayList<>();
+        for (int sequence = 1; sequence <= schedule.length(); sequence++) {
+            if(archivedSequences.contains(sequence))
+                continue;
+            Showing showing = schedule.get(sequence - 1);
+            LocalDateTime endTime = showing != null
+                    ? showing.getStartTime().plus(showing.getMovie().getRunningTime())
+                    : snapshot.endTime(sequence - 1); // read from the snapshot without decoding the showing
+            if(!endTime.isAfter(now)) {
+                sequences.add(sequence);
+                completed.add(showing != null ? showing : snapshot.showing(sequence - 1));
+            }
+        }
+        if(completed.isEmpty())
+            return 0;
+
+        archivedSequences.addAll(sequences); // no new reservations from here on
+        for (int i = 0; i < sequences.size(); i++) {
+            Showing decoded = schedule.getAndSet(sequences.get(i) - 1, null);
+            if(decoded != null)
+                completed.set(i, decoded);
+        }
+        completed.forEach(Showing::close); // waits for reservations and cancellations in progress
+        try {
+            coldTier.archive(completed);
+        } catch (IOException | RuntimeException ex) {
+            for (int i = 0; i < sequences.size(); i++) {
+                completed.get(i).reopen();
+                schedule.set(sequences.get(i) - 1, completed.get(i));
+                archivedSequences.remove(sequences.get(i));
+            }
+            throw ex;
+        }
+
+        scheduleChanges.incrementAndGet();
+        quotes.set(null);
+        sequencesByMovie = null;
+        completed.forEach(rateLimiter::forget);
+        completed.forEach(showing -> showing.getWaitlist().close(new IllegalStateException("showing has completed and was archived")));
+        return completed.size();
+    }
+
+    /**
+     * Archives completed showings to a cold tier periodically. Failures are handed to the given
+     * handler and the showings are retried on the next run.
+     * 
+     * @param coldTier          the cold tier to move the showings to
+     * @param executor          the executor running the archiving
+     * @param period            the time between two runs
+     * @param onFailure         called with the error of every failed run; it should not throw, as that stops the archiving
+     * @throws RuntimeException for a null cold tier, executor, period, or failure handler, or a non-positive period
+     * @return                  the scheduled archiving, which can be cancelled
+    */
+    public ScheduledFuture<?> scheduleArchiving(ColdTier coldTier, ScheduledExecutorService executor, Duration period, Consumer<? super Exception> onFailure) {
+        if(coldTier == null || executor == null || period == null || onFailure == null || period.isZero() || period.isNegative())
+            throw new RuntimeException("archiving must have a cold tier, an executor, a positive period, and a failure handler");
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                archiveCompletedShowings(coldTier);
+            } catch (IOException | RuntimeException ex) {
+                onFailure.accept(ex);
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Saves the schedule and its movies to a snapshot file, which later theaters can start from.
+     * 
+     * @param  file        the snapshot file to write
+     * @throws IOException if the file cannot be written
+    */
+    public void saveSchedule(Path file) throws IOException {
+        ScheduleSnapshot.write(getSchedule(), file);
     }
 
     /** Prints the schedule of the theater for today in a plain text. */
     public void printSchedule() {
         System.out.println(provider.currentDate());
         System.out.println("===================================================");
-        schedule.forEach(s ->
+        getSchedule().forEach(s ->
                 System.out.println(s.getSequenceOfTheDay() + ": " + s.getStartTime() + " " + s.getMovie().getTitle() + " " + humanReadableFormat(s.getMovie().getRunningTime()) + " $" + s.getMovieFee())
         );
         System.out.println("===================================================");
@@ -93,7 +641,7 @@ public class Theater {
     public void printScheduleInJSON() { 
         JSONObject scheduleInJSON = new JSONObject();
         int showingNumber = 0;
-        schedule.forEach(s ->
+        getSchedule().forEach(s ->
             scheduleInJSON.put(++showingNumber, s.getSequenceOfTheDay() + ": " + s.getStartTime() + " " + s.getMovie().getTitle() + " " + humanReadableFormat(s.getMovie().getRunningTime()) + " $" + s.getMovieFee())
         );
         System.out.println("===================================================");
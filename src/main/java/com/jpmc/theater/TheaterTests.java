@@ -2,10 +2,37 @@ package com.jpmc.theater;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TheaterTests {
+
+    /** Gets a date provider whose current time is 3 pm today, when the first three showings have ended. */
+    private static LocalDateProvider afternoon() {
+        return new LocalDateProvider() {
+            @Override
+            public LocalDateTime currentDateTime() {
+                return LocalDateTime.of(LocalDate.now(), LocalTime.of(15, 0));
+            }
+        };
+    }
     
     /** Testing reservation for a null customer raises an exception. */
     @Test
@@ -92,4 +119,358 @@ public class TheaterTests {
         Reservation reservation = theater.reserve(john, 2, 4);
         assertEquals(reservation.totalFee(), 37.5);
     }
-}
\ No newline at end of file
+
+    /** Testing reservation for more tickets than there are free seats raises an exception. */
+    @Test
+    void testReserveMovieNotEnoughSeats() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 1000, 1000, 1000));
+        Customer john = new Customer("John Doe", "id-12345");
+        theater.reserve(john, 9, 100);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(john, 9, 1));
+        assertEquals("not enough seats available for showing sequence 9", exception.getMessage());
+    }
+
+    /** Testing cancellation frees the seats of the reservation. */
+    @Test
+    void testCancelReservation() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        Reservation reservation = theater.reserve(john, 9, 4);
+        theater.cancel(reservation);
+        assertTrue(reservation.isCancelled());
+        assertEquals(100, reservation.getShowing().getSeatsAvailable());
+    }
+
+    /** Testing cancelling a reservation twice raises an exception. */
+    @Test
+    void testCancelReservationTwice() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        Reservation reservation = theater.reserve(john, 9, 4);
+        theater.cancel(reservation);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.cancel(reservation));
+        assertEquals("reservation has already been cancelled", exception.getMessage());
+    }
+
+    /** Testing that a cancellation backfills the seats to a waitlisted customer. */
+    @Test
+    void testCancelBackfillsWaitlist() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 1000, 1000, 1000));
+        Customer john = new Customer("John Doe", "id-12345");
+        Customer jane = new Customer("Jane Doe", "id-67890");
+        Reservation reservation = theater.reserve(john, 9, 100);
+        CompletableFuture<Reservation> waiting = theater.joinWaitlist(jane, 9, 3);
+        assertFalse(waiting.isDone());
+        theater.cancel(reservation);
+        assertTrue(waiting.isDone());
+        assertEquals(jane, waiting.join().getCustomer());
+        assertEquals(97, reservation.getShowing().getSeatsAvailable());
+    }
+
+    /** Testing new reservations cannot take seats while customers are waiting for them. */
+    @Test
+    void testReserveDefersToWaitlist() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 1000, 1000, 1000));
+        Customer john = new Customer("John Doe", "id-12345");
+        Customer jane = new Customer("Jane Doe", "id-67890");
+        Reservation reservation = theater.reserve(john, 9, 99);
+        CompletableFuture<Reservation> waiting = theater.joinWaitlist(jane, 9, 3);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(john, 9, 1));
+        assertEquals("customers are waiting for seats, join the waitlist of showing sequence 9", exception.getMessage());
+        theater.cancel(reservation);
+        assertTrue(waiting.isDone());
+        assertEquals(1, theater.reserve(john, 9, 1).getTicketAmount());
+    }
+
+    /** Testing joining a waitlist while seats are free is served immediately. */
+    @Test
+    void testJoinWaitlistWithFreeSeats() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer jane = new Customer("Jane Doe", "id-67890");
+        CompletableFuture<Reservation> waiting = theater.joinWaitlist(jane, 9, 3);
+        assertTrue(waiting.isDone());
+    }
+
+    /** Testing joining a waitlist for more tickets than the showing has seats raises an exception. */
+    @Test
+    void testJoinWaitlistOverCapacity() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer jane = new Customer("Jane Doe", "id-67890");
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.joinWaitlist(jane, 9, 101));
+        assertEquals("amount of tickets exceeds the capacity of showing sequence 9", exception.getMessage());
+    }
+
+    /** Testing a price change reprices the active reservations of the showing. */
+    @Test
+    void testChangeTicketPrice() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        Reservation reservation = theater.reserve(john, 9, 4);
+        theater.changeTicketPrice(9, 10);
+        assertEquals(40, reservation.totalFee());
+    }
+
+    /** Testing reservations are published to the subscribers of the theater's events. */
+    @Test
+    void testReservationEventsPublished() throws Exception {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        CompletableFuture<ReservationEvent> received = new CompletableFuture<>();
+        theater.getReservationEvents().subscribe(new Flow.Subscriber<ReservationEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ReservationEvent event) {
+                received.complete(event);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                received.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Reservation reservation = theater.reserve(new Customer("John Doe", "id-12345"), 9, 4);
+        ReservationEvent event = received.get(5, TimeUnit.SECONDS);
+        assertEquals(ReservationEvent.Type.CREATED, event.getType());
+        assertEquals(reservation, event.getReservation());
+        assertEquals(36, event.getTotalFee());
+    }
+
+    /** Testing reservation for more tickets than a single reservation may have raises an exception. */
+    @Test
+    void testReserveMovieOverTicketLimit() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(john, 9, 21));
+        assertEquals("amount of tickets exceeds the limit of a single reservation", exception.getMessage());
+    }
+
+    /** Testing a customer buying tickets too fast is rejected without taking seats. */
+    @Test
+    void testReserveMovieCustomerRateExceeded() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        theater.reserve(john, 9, 20);
+        theater.reserve(john, 9, 20);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(john, 9, 1));
+        assertEquals("customer is buying tickets too fast, try again later", exception.getMessage());
+        Reservation reservation = theater.reserve(new Customer("Jane Doe", "id-67890"), 9, 1);
+        assertEquals(59, reservation.getShowing().getSeatsAvailable());
+    }
+
+    /** Testing a reservation rejected for lack of seats does not use up the customer's rate. */
+    @Test
+    void testReserveMovieNotEnoughSeatsRefunded() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(20, 20, 1000, 1000));
+        Customer john = new Customer("John Doe", "id-12345");
+        for (int i = 0; i < 5; i++) {
+            theater.reserve(new Customer("Jane Doe", "id-" + i), 9, 20);
+        }
+        assertThrows(RuntimeException.class, () -> theater.reserve(john, 9, 20));
+        assertEquals(20, theater.reserve(john, 8, 20).getTicketAmount());
+    }
+
+    /** Testing a customer over the rate cannot get tickets through the waitlist either. */
+    @Test
+    void testJoinWaitlistRateLimited() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Customer john = new Customer("John Doe", "id-12345");
+        theater.reserve(john, 9, 20);
+        theater.reserve(john, 9, 20);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.joinWaitlist(john, 8, 1));
+        assertEquals("customer is buying tickets too fast, try again later", exception.getMessage());
+        assertEquals(99, theater.reserve(new Customer("Jane Doe", "id-67890"), 8, 1).getShowing().getSeatsAvailable());
+    }
+
+    /** Testing waitlisted tickets count against the customer's rate until the customer leaves the waitlist. */
+    @Test
+    void testLeavingWaitlistRefunded() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 20, 1000, 1000));
+        Customer jane = new Customer("Jane Doe", "id-67890");
+        for (int i = 0; i < 5; i++) {
+            theater.reserve(new Customer("John Doe", "id-" + i), 9, 20);
+        }
+        CompletableFuture<Reservation> waiting = theater.joinWaitlist(jane, 9, 20);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(jane, 8, 1));
+        assertEquals("customer is buying tickets too fast, try again later", exception.getMessage());
+        waiting.cancel(false);
+        assertEquals(20, theater.reserve(jane, 8, 20).getTicketAmount());
+    }
+
+    /** Testing the quote of today's schedule prices every showing like a reservation would. */
+    @Test
+    void testQuoteToday() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        ScheduleQuote quote = theater.quote(LocalDate.now());
+        double[] prices = quote.prices(null);
+        assertEquals(9, quote.size());
+        assertEquals(9, prices[8]);
+        assertEquals(8.25, prices[3]);
+    }
+
+    /** Testing a quote reflects ticket price changes. */
+    @Test
+    void testQuoteAfterPriceChange() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        theater.quote(LocalDate.now());
+        theater.changeTicketPrice(9, 10);
+        assertEquals(10, theater.quote(LocalDate.now()).prices(null)[8]);
+    }
+
+    /** Testing a quote of a date without showings is empty. */
+    @Test
+    void testQuoteDateWithoutShowings() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        assertEquals(9, theater.quote(LocalDate.now(), LocalDate.now().plusDays(1)).size());
+        assertEquals(0, theater.quote(LocalDate.now().plusDays(1)).size());
+    }
+
+    /** Testing a party is split across the cheapest showings of a movie within the time window. */
+    @Test
+    void testFindGroupBooking() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 1000, 1000, 1000));
+        Movie theBatman = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+        theater.reserve(new Customer("John Doe", "id-12345"), 3, 90);
+        GroupBooking booking = theater.findGroupBooking(theBatman, 30,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(12, 0)), LocalDateTime.of(LocalDate.now(), LocalTime.of(23, 59)),
+                2, GroupBooking.Objective.CHEAPEST);
+        assertEquals(2, booking.getShowings().size());
+        assertEquals(10, booking.getTicketAmount(booking.getShowings().get(0)));
+        assertEquals(20, booking.getTicketAmount(booking.getShowings().get(1)));
+        assertEquals(10 * 6.75 + 20 * 9, booking.getTotalFee());
+    }
+
+    /** Testing a group booking that cannot be seated within the time window raises an exception. */
+    @Test
+    void testFindGroupBookingTooLarge() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Movie theBatman = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.findGroupBooking(theBatman, 101,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(12, 0)), LocalDateTime.of(LocalDate.now(), LocalTime.of(15, 0)),
+                3, GroupBooking.Objective.SOONEST));
+        assertEquals("not able to seat a party of 101 for The Batman within the given time window", exception.getMessage());
+    }
+
+    /** Testing a party too large for one showing is booked and reserved with the default limits. */
+    @Test
+    void testReserveGroupBooking() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Movie theBatman = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+        Customer john = new Customer("John Doe", "id-12345");
+        GroupBooking booking = theater.findGroupBooking(theBatman, 120,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(0, 0)), LocalDateTime.of(LocalDate.now(), LocalTime.of(23, 59)),
+                10, GroupBooking.Objective.CHEAPEST);
+        Showing first = booking.getShowings().get(0);
+        assertEquals(3, booking.getSequence(first));
+        assertEquals(100, booking.getTicketAmount(first));
+        List<Reservation> reservations = theater.reserveGroupBooking(john, booking);
+        assertEquals(2, reservations.size());
+        assertEquals(120, reservations.get(0).getTicketAmount() + reservations.get(1).getTicketAmount());
+        assertEquals(0, first.getSeatsAvailable());
+    }
+
+    /** Testing a group booking that can no longer be seated is rolled back as a whole. */
+    @Test
+    void testReserveGroupBookingRolledBack() {
+        Theater theater = new Theater(LocalDateProvider.singleton(), new ReservationRateLimiter(100, 1000, 1000, 300, 120, 1000));
+        Movie theBatman = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+        Customer john = new Customer("John Doe", "id-12345");
+        LocalDateTime from = LocalDateTime.of(LocalDate.now(), LocalTime.of(0, 0));
+        LocalDateTime to = LocalDateTime.of(LocalDate.now(), LocalTime.of(23, 59));
+        GroupBooking booking = theater.findGroupBooking(theBatman, 120, from, to, 10, GroupBooking.Objective.CHEAPEST);
+        Showing second = booking.getShowings().get(1);
+        theater.reserve(new Customer("Jane Doe", "id-67890"), booking.getSequence(second), 90);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserveGroupBooking(john, booking));
+        assertEquals("not enough seats available for showing sequence " + booking.getSequence(second), exception.getMessage());
+        assertEquals(100, booking.getShowings().get(0).getSeatsAvailable());
+        GroupBooking smaller = theater.findGroupBooking(theBatman, 110, from, to, 10, GroupBooking.Objective.CHEAPEST);
+        assertEquals(2, theater.reserveGroupBooking(john, smaller).size()); // the allowance was given back
+    }
+
+    /** Testing a party larger than a group booking may be is rejected up front. */
+    @Test
+    void testFindGroupBookingOverLimit() {
+        Theater theater = new Theater(LocalDateProvider.singleton());
+        Movie theBatman = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.findGroupBooking(theBatman, 301,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(0, 0)), LocalDateTime.of(LocalDate.now(), LocalTime.of(23, 59)),
+                3, GroupBooking.Objective.CHEAPEST));
+        assertEquals("party size exceeds the limit of a group booking", exception.getMessage());
+    }
+
+    /** Testing completed showings are moved to the cold tier with their reservations. */
+    @Test
+    void testArchiveCompletedShowings() throws IOException {
+        LocalDateProvider afternoon = afternoon();
+        Theater theater = new Theater(afternoon, new ReservationRateLimiter(100, 1000, 1000, 1000));
+        Customer john = new Customer("John Doe", "id-12345");
+        Reservation reservation = theater.reserve(john, 2, 4);
+        theater.reserve(new Customer("Jane Doe", "id-67890"), 3, 100);
+        CompletableFuture<Reservation> waiting = theater.joinWaitlist(john, 3, 1);
+        Path directory = Files.createTempDirectory("cold-tier");
+        try {
+            ColdTier coldTier = ColdTier.open(directory);
+            assertEquals(3, theater.archiveCompletedShowings(coldTier));
+            assertEquals(0, theater.archiveCompletedShowings(coldTier));
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> theater.reserve(john, 1, 1));
+            assertEquals("showing for given sequence 1 has completed and was archived", exception.getMessage());
+            assertTrue(waiting.isCompletedExceptionally());
+            exception = assertThrows(IllegalStateException.class, () -> theater.cancel(reservation));
+            assertEquals("showing of the reservation has completed and was archived", exception.getMessage());
+            assertFalse(reservation.isCancelled());
+            assertEquals(6, theater.quote(LocalDate.now()).size());
+            theater.reserve(john, 4, 1);
+
+            assertEquals(3, coldTier.showings().size());
+            Reservation archived = coldTier.reservations(r -> r.getCustomer().equals(john)).get(0);
+            assertEquals(2, archived.getShowing().getSequenceOfTheDay());
+            assertEquals(37.5, archived.totalFee());
+        } finally {
+            Files.walk(directory).sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /** Testing showings of a snapshot that were never decoded are archived as well. */
+    @Test
+    void testArchiveCompletedShowingsFromSnapshot() throws IOException {
+        LocalDateProvider afternoon = afternoon();
+        Path directory = Files.createTempDirectory("cold-tier");
+        Path file = directory.resolve("schedule.snapshot");
+        try {
+            new Theater(afternoon).saveSchedule(file);
+            Theater theater = new Theater(afternoon, ScheduleSnapshot.load(file));
+            ColdTier coldTier = ColdTier.open(directory);
+            assertEquals(3, theater.archiveCompletedShowings(coldTier));
+            assertEquals(3, coldTier.showings().size());
+            assertThrows(RuntimeException.class, () -> theater.reserve(new Customer("John Doe", "id-12345"), 3, 1));
+            assertEquals(33, theater.reserve(new Customer("John Doe", "id-12345"), 4, 4).totalFee());
+        } finally {
+            Files.walk(directory).sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    /** Testing failed archiving runs are reported to the failure handler. */
+    @Test
+    void testScheduleArchivingReportsFailures() throws Exception {
+        LocalDateProvider afternoon = afternoon();
+        Theater theater = new Theater(afternoon);
+        Path directory = Files.createTempDirectory("cold-tier");
+        ColdTier coldTier = ColdTier.open(directory);
+        Files.delete(directory); // segments can no longer be written
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletableFuture<Exception> failure = new CompletableFuture<>();
+            theater.scheduleArchiving(coldTier, executor, Duration.ofMillis(10), failure::complete);
+            assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof IOException);
+            assertEquals(1, theater.reserve(new Customer("John Doe", "id-12345"), 1, 1).getTicketAmount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.jpmc.theater;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/** A waitlist class for JPMorgan Chase's take home assignment. The waitlist keeps customers waiting for
+ * seats of a sold out showing in FIFO order, and hands freed seats to them as soon as they become available.
+ * The queue is lock-free, and backfilling is done by whichever thread frees seats, so no polling is involved.
+ * @author David Burdjanadze
+ * @version 1.0
+*/
+class Waitlist {
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backfillRequests = new AtomicInteger();
+
+    /** Adds a customer to the end of the waitlist. If the customer gives up on waiting by cancelling
+     * the future, the waitlist is backfilled right away, so the customers behind are not held up.
+     * 
+     * @param  customer       the customer waiting for seats
+     * @param  ticketCount    the amount of tickets the customer wants
+     * @param  showing        the showing the waitlist belongs to
+     * @param  onBackfilled   called with every reservation handed to a waitlisted customer
+     * @throws IllegalStateException if the showing is closed
+     * @return                a future completed with the reservation once seats are given to the customer
+     */
+    CompletableFuture<Reservation> join(Customer customer, int ticketCount, Showing showing, Consumer<Reservation> onBackfilled) {
+        Entry entry = new Entry(customer, ticketCount);
+        if (!showing.beginChange())
+            throw new IllegalStateException("showing is closed to new reservations");
+        try {
+            entries.offer(entry);
+        } finally {
+            showing.endChange();
+        }
+        entry.reservation.whenComplete((reservation, error) -> {
+            if (error != null)
+                backfill(showing, onBackfilled);
+        });
+        return entry.reservation;
+    }
+
+    /** Checks whether customers are waiting in the waitlist.
+     * 
+     * @return true if nobody is waiting, false otherwise
+     */
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /** Gets the amount of customers waiting in the waitlist.
+     * 
+     * @return size of the waitlist
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /** Offers the free seats of the showing to the waitlisted customers in order. The head of the waitlist
+     * is served first, and backfilling stops at the first customer whose tickets do not fit, so nobody is
+     * skipped. Only one thread backfills at a time; concurrent calls are folded into the running one.
+     * Nothing is handed out once the showing is closed.
+     * 
+     * @param showing     the showing the waitlist belongs to
+     * @param onBackfilled called with every reservation handed to a waitlisted customer
+     */
+    void backfill(Showing showing, Consumer<Reservation> onBackfilled) {
+        if (backfillRequests.getAndIncrement() != 0)
+            return;
+        int missed = 1;
+        do {
+            Entry head;
+            while ((head = entries.peek()) != null) {
+                if (head.reservation.isDone()) { // customer gave up on waiting
+                    entries.poll();
+                    continue;
+                }
+                if (!showing.beginChange())
+                    break;
+                try {
+                    if (!showing.tryClaimSeats(head.ticketCount))
+                        break;
+                    entries.poll();
+                    Reservation reservation = new Reservation(head.customer, showing, head.ticketCount);
+                    if (head.reservation.complete(reservation))
+                        onBackfilled.accept(reservation);
+                    else
+                        showing.releaseSeats(head.ticketCount);
+                } finally {
+                    showing.endChange();
+                }
+            }
+            missed = backfillRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /** Empties the waitlist once its showing can no longer be reserved, failing the futures of
+     * every customer still waiting.
+     * 
+     * @param reason the error the futures are completed with
+     */
+    void close(RuntimeException reason) {
+        Entry head;
+        while ((head = entries.poll()) != null) {
+            head.reservation.completeExceptionally(reason);
+        }
+    }
+
+    /** A customer waiting in the waitlist with the amount of tickets requested. */
+    private static class Entry {
+        private final Customer customer;
+        private final int ticketCount;
+        private final CompletableFuture<Reservation> reservation = new CompletableFuture<>();
+
+        private Entry(Customer customer, int ticketCount) {
+            this.customer = customer;
+            this.ticketCount = ticketCount;
+        }
+    }
+}
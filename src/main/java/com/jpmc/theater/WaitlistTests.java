@@ -0,0 +1,95 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WaitlistTests {
+
+    private Showing soldOutShowing() {
+        Showing showing = new Showing(
+                new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 0),
+                5,
+                LocalDateTime.of(LocalDate.now(), LocalTime.of(17, 50)),
+                4
+        );
+        showing.tryClaimSeats(4);
+        return showing;
+    }
+
+    /** Tests that waitlisted customers are backfilled in the order they joined. */
+    @Test
+    void testBackfillInOrder() {
+        Showing showing = soldOutShowing();
+        CompletableFuture<Reservation> first = showing.getWaitlist().join(new Customer("John Doe", "id-1"), 2, showing, reservation -> { });
+        CompletableFuture<Reservation> second = showing.getWaitlist().join(new Customer("Jane Doe", "id-2"), 2, showing, reservation -> { });
+        showing.releaseSeats(2);
+        showing.getWaitlist().backfill(showing, reservation -> { });
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(new Customer("John Doe", "id-1"), first.join().getCustomer());
+        assertEquals(1, showing.getWaitlist().size());
+    }
+
+    /** Tests that a customer whose tickets do not fit is not skipped by later customers. */
+    @Test
+    void testBackfillDoesNotSkipHead() {
+        Showing showing = soldOutShowing();
+        CompletableFuture<Reservation> first = showing.getWaitlist().join(new Customer("John Doe", "id-1"), 3, showing, reservation -> { });
+        CompletableFuture<Reservation> second = showing.getWaitlist().join(new Customer("Jane Doe", "id-2"), 1, showing, reservation -> { });
+        showing.releaseSeats(2);
+        showing.getWaitlist().backfill(showing, reservation -> { });
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(2, showing.getSeatsAvailable());
+    }
+
+    /** Tests that a blocking customer leaving the waitlist lets the customers behind get free seats. */
+    @Test
+    void testLeavingWaitlistBackfills() {
+        Showing showing = soldOutShowing();
+        CompletableFuture<Reservation> first = showing.getWaitlist().join(new Customer("John Doe", "id-1"), 3, showing, reservation -> { });
+        CompletableFuture<Reservation> second = showing.getWaitlist().join(new Customer("Jane Doe", "id-2"), 1, showing, reservation -> { });
+        showing.releaseSeats(2);
+        showing.getWaitlist().backfill(showing, reservation -> { });
+        assertFalse(second.isDone());
+        first.cancel(false);
+        assertTrue(second.isDone());
+        assertEquals(1, showing.getSeatsAvailable());
+        assertTrue(showing.getWaitlist().isEmpty());
+    }
+
+    /** Tests that customers who left the waitlist are skipped without taking seats. */
+    @Test
+    void testBackfillSkipsCancelledEntries() {
+        Showing showing = soldOutShowing();
+        CompletableFuture<Reservation> first = showing.getWaitlist().join(new Customer("John Doe", "id-1"), 2, showing, reservation -> { });
+        CompletableFuture<Reservation> second = showing.getWaitlist().join(new Customer("Jane Doe", "id-2"), 2, showing, reservation -> { });
+        first.cancel(false);
+        showing.releaseSeats(2);
+        showing.getWaitlist().backfill(showing, reservation -> { });
+        assertTrue(second.isDone());
+        assertEquals(0, showing.getSeatsAvailable());
+        assertEquals(0, showing.getWaitlist().size());
+    }
+
+    /** Tests that customers cannot join the waitlist of a closed showing. */
+    @Test
+    void testJoinClosedShowing() {
+        Showing showing = soldOutShowing();
+        showing.close();
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                showing.getWaitlist().join(new Customer("John Doe", "id-1"), 2, showing, reservation -> { }));
+        assertEquals("showing is closed to new reservations", exception.getMessage());
+        assertTrue(showing.getWaitlist().isEmpty());
+    }
+}